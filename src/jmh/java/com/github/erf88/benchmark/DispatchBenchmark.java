@@ -0,0 +1,120 @@
+package com.github.erf88.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.config.UserArchiveProperties;
+import com.github.erf88.controller.exceptions.ControllerExceptionHandler;
+import com.github.erf88.controller.exceptions.RouterExceptionHandler;
+import com.github.erf88.controller.functional.UserHandler;
+import com.github.erf88.controller.functional.UserRouter;
+import com.github.erf88.controller.impl.UserControllerImpl;
+import com.github.erf88.entity.User;
+import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.mapper.UserMapperImpl;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.service.UserService;
+import com.github.erf88.service.exception.ObjectNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private static final String ID = "65a1c0f1e4b0a1b2c3d4e5f6";
+    private static final String MISSING = "65a1c0f1e4b0a1b2c3d4e5f7";
+
+    @Param({ "annotated", "functional" })
+    public String mode;
+
+    private final UserRequest patchRequest = new UserRequest("renamed", null, null);
+
+    private ValidatorFactory validatorFactory;
+    private WebTestClient client;
+
+    @Setup
+    public void setUp() {
+        final User user = User.builder().id(ID).name("usuario").email("usuario@email.com").version(3L).build();
+        final UserService service = mock(UserService.class, withSettings().stubOnly());
+        when(service.findById(ID)).thenReturn(Mono.just(user));
+        when(service.findById(MISSING)).thenReturn(Mono.error(new ObjectNotFoundException("Object not found. Id: " + MISSING + ", Type: User")));
+        when(service.update(anyString(), any(UserRequest.class), isNull())).thenReturn(Mono.just(user));
+        when(service.update(anyString(), any(UserRequest.class), eq(3L))).thenReturn(Mono.just(user));
+        final UserMapper mapper = new UserMapperImpl();
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final UserArchive archive = new UserArchive(objectMapper, new UserArchiveProperties(DataSize.ofGigabytes(1), 100, null));
+
+        if (UserRouter.FUNCTIONAL.equals(mode)) {
+            validatorFactory = Validation.buildDefaultValidatorFactory();
+            final UserHandler handler = new UserHandler(service, mapper, validatorFactory.getValidator(), archive);
+            client = WebTestClient.bindToRouterFunction(new UserRouter().userRoutes(handler, new RouterExceptionHandler())).build();
+        } else {
+            client = WebTestClient.bindToController(new UserControllerImpl(service, mapper, archive))
+                    .controllerAdvice(new ControllerExceptionHandler())
+                    .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (validatorFactory != null) {
+            validatorFactory.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] findById() {
+        return client.get()
+                .uri("/users/{id}", ID)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] findByIdNotFound() {
+        return client.get()
+                .uri("/users/{id}", MISSING)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] update() {
+        return client.patch()
+                .uri("/users/{id}", ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "\"3\"")
+                .bodyValue(patchRequest)
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+
+}
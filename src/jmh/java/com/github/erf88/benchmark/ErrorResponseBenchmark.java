@@ -0,0 +1,71 @@
+package com.github.erf88.benchmark;
+
+import com.github.erf88.controller.exceptions.ControllerExceptionHandler;
+import com.github.erf88.controller.exceptions.StandardError;
+import com.github.erf88.controller.exceptions.ValidationError;
+import com.github.erf88.entity.User;
+import com.github.erf88.service.exception.ObjectNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+    private final ControllerExceptionHandler handler = new ControllerExceptionHandler();
+    private final String id = "65a1c0f1e4b0a1b2c3d4e5f6";
+    private final ServerHttpRequest request = MockServerHttpRequest.get("/users/65a1c0f1e4b0a1b2c3d4e5f6").build();
+    private final ObjectNotFoundException notFound = new ObjectNotFoundException("Object not found. Id: 65a1c0f1e4b0a1b2c3d4e5f6, Type: User");
+    private final DuplicateKeyException duplicateKey = new DuplicateKeyException(
+            "Write operation error on server. Write error: WriteError{code=11000, message='E11000 duplicate key error collection: webflux-api.user index: email_1 dup key: { email: \"usuario@email.com\" }'}");
+
+    @Benchmark
+    public RuntimeException notFoundExceptionWithStackTrace() {
+        return new RuntimeException("Object not found. Id: %s, Type: %s".formatted(id, User.class.getSimpleName()));
+    }
+
+    @Benchmark
+    public RuntimeException notFoundException() {
+        return new ObjectNotFoundException("Object not found. Id: " + id + ", Type: User");
+    }
+
+    @Benchmark
+    public StandardError standardErrorWithBuilder() {
+        return StandardError.builder()
+                .timestamp(OffsetDateTime.now())
+                .status(404)
+                .error("Not Found")
+                .message(notFound.getMessage())
+                .path("/users/" + id)
+                .build();
+    }
+
+    @Benchmark
+    public ResponseEntity<StandardError> notFound() {
+        return handler.handleObjectNotFoundException(notFound, request).block();
+    }
+
+    @Benchmark
+    public ResponseEntity<StandardError> duplicateKey() {
+        return handler.handleDuplicateKeyException(duplicateKey, request).block();
+    }
+
+    @Benchmark
+    public ValidationError validationError() {
+        ValidationError error = new ValidationError(OffsetDateTime.now(), "/users", 400, "Validation error", "Error on validation attributes");
+        error.addError("name", "must be between 3 and 50 characters");
+        error.addError("email", "invalid email");
+        return error;
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.github.erf88.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.erf88.codec.UserJsonEncoder;
+import com.github.erf88.codec.UserRequestDecoder;
+import com.github.erf88.controller.exceptions.ValidationError;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.UserResponse;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final ResolvableType REQUEST_TYPE = ResolvableType.forClass(UserRequest.class);
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(UserResponse.class);
+    private static final ResolvableType ERROR_TYPE = ResolvableType.forClass(ValidationError.class);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectReader requestReader = objectMapper.readerFor(UserRequest.class);
+    private final ObjectWriter responseWriter = objectMapper.writerFor(UserResponse.class);
+    private final byte[] requestJson = """
+            {"name":"usuario","email":"usuario@email.com","password":"usuario123"}"""
+            .getBytes(StandardCharsets.UTF_8);
+    private final UserResponse response = new UserResponse("65a1c0f1e4b0a1b2c3d4e5f6", "usuario", "usuario@email.com");
+    private final ValidationError validationError = new ValidationError(OffsetDateTime.now(), "/users", 400, "Validation error",
+            "Error on validation attributes");
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Param({ "jackson", "precompiled" })
+    public String codec;
+
+    private Decoder<Object> decoder;
+    private Encoder<Object> encoder;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        validationError.addError("name", "must be between 3 and 50 characters");
+        validationError.addError("email", "invalid email");
+        if ("precompiled".equals(codec)) {
+            decoder = (Decoder<Object>) (Decoder<?>) new UserRequestDecoder();
+            encoder = new UserJsonEncoder();
+        } else {
+            decoder = new Jackson2JsonDecoder(objectMapper);
+            encoder = new Jackson2JsonEncoder(objectMapper);
+        }
+    }
+
+    @Benchmark
+    public UserRequest readUserRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writeUserResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Object decodeUserRequest() {
+        return decoder.decode(bufferFactory.wrap(requestJson), REQUEST_TYPE, MediaType.APPLICATION_JSON, Map.of());
+    }
+
+    @Benchmark
+    public int encodeUserResponse() {
+        return release(encoder.encodeValue(response, bufferFactory, RESPONSE_TYPE, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    @Benchmark
+    public int encodeValidationError() {
+        return release(encoder.encodeValue(validationError, bufferFactory, ERROR_TYPE, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    private static int release(final DataBuffer buffer) {
+        final int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+}
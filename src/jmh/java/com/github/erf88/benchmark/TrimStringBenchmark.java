@@ -0,0 +1,31 @@
+package com.github.erf88.benchmark;
+
+import com.github.erf88.validator.TrimStringValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrimStringBenchmark {
+
+    private final TrimStringValidator validator = new TrimStringValidator();
+
+    @Param({ "usuario@email.com", " usuario@email.com " })
+    public String value;
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(value, null);
+    }
+
+    @Benchmark
+    public boolean trimAndCompare() {
+        return value.trim().length() == value.length();
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.github.erf88.benchmark;
+
+import com.github.erf88.entity.User;
+import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.mapper.UserMapperImpl;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.UserResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private final UserMapper mapper = new UserMapperImpl();
+    private final UserRequest request = new UserRequest("usuario", "usuario@email.com", "usuario123");
+    private final User entity = User.builder()
+            .id("65a1c0f1e4b0a1b2c3d4e5f6")
+            .name("usuario")
+            .email("usuario@email.com")
+            .password("$2a$10$abcdefghijklmnopqrstuu")
+            .version(1L)
+            .build();
+
+    @Benchmark
+    public User toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public User toEntityWithTarget() {
+        return mapper.toEntity(request, User.builder().build());
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return mapper.toResponse(entity);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.github.erf88.benchmark;
+
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.validator.OnCreate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.groups.Default;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final UserRequest validRequest = new UserRequest("usuario", "usuario@email.com", "usuario123");
+    private final UserRequest invalidRequest = new UserRequest(" u", "usuario@", "usuario123 ");
+    private final UserRequest patchRequest = new UserRequest("usuario", null, null);
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> validateValidRequest() {
+        return validator.validate(validRequest, Default.class, OnCreate.class);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest, Default.class, OnCreate.class);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> validatePatchRequest() {
+        return validator.validate(patchRequest);
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.github.erf88.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.erf88.config.UserCacheProperties;
+import com.github.erf88.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+
+    public static final String CACHE_NAME = "users";
+    public static final String EMAIL_CACHE_NAME = "users-by-email";
+
+    private final AsyncCache<String, User> cache;
+    private final Cache<String, String> emailIds;
+
+    public UserCache(final UserCacheProperties properties, final MeterRegistry registry) {
+        if (properties.enabled()) {
+            this.cache = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                    .maximumSize(properties.maximumSize())
+                    .expireAfterWrite(properties.ttl())
+                    .recordStats()
+                    .buildAsync(), CACHE_NAME);
+            this.emailIds = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                    .maximumSize(properties.maximumSize())
+                    .expireAfterWrite(properties.ttl())
+                    .recordStats()
+                    .build(), EMAIL_CACHE_NAME);
+        } else {
+            this.cache = null;
+            this.emailIds = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Mono<User> get(final String id, final Function<String, Mono<User>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    public Mono<Map<String, User>> getAll(final Set<String> ids, final Function<Set<String>, Flux<User>> loader) {
+        if (cache == null) {
+            return loader.apply(ids).collectMap(User::getId);
+        }
+        return Mono.fromFuture(() -> cache.getAll(ids, (keys, executor) -> loader.apply(Set.copyOf(keys))
+                .collectMap(User::getId)
+                .toFuture()), true);
+    }
+
+    public String getIdByEmail(final String email) {
+        return emailIds == null ? null : emailIds.getIfPresent(emailKey(email));
+    }
+
+    public void putIdByEmail(final String email, final String id) {
+        if (emailIds != null) {
+            emailIds.put(emailKey(email), id);
+        }
+    }
+
+    public void invalidate(final String id) {
+        if (cache != null && id != null) {
+            cache.synchronous().invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+            emailIds.invalidateAll();
+        }
+    }
+
+    private static String emailKey(final String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+}
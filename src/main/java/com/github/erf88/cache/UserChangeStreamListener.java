@@ -0,0 +1,134 @@
+package com.github.erf88.cache;
+
+import com.github.erf88.config.UserChangeStreamProperties;
+import com.github.erf88.entity.User;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@ConditionalOnProperty(prefix = "users.cache.change-stream", name = "enabled", havingValue = "true")
+public class UserChangeStreamListener {
+
+    public static final String METRIC_PREFIX = "users.cache.change-stream";
+
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final UserCache cache;
+    private final UserChangeStreamProperties properties;
+    private final MeterRegistry registry;
+    private final Counter restarts;
+    private final AtomicReference<BsonValue> resumeToken = new AtomicReference<>();
+
+    private Disposable subscription;
+
+    public UserChangeStreamListener(final ReactiveMongoTemplate mongoTemplate, final UserCache cache,
+                                    final UserChangeStreamProperties properties, final MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.cache = cache;
+        this.properties = properties;
+        this.registry = registry;
+        this.restarts = Counter.builder(METRIC_PREFIX + ".restarts")
+                .description("Change stream reopened after a failure")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = listen().subscribe(null, this::terminated);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public BsonValue getResumeToken() {
+        return resumeToken.get();
+    }
+
+    Flux<ChangeStreamEvent<Document>> listen() {
+        return Flux.defer(() -> mongoTemplate.changeStream(mongoTemplate.getCollectionName(User.class), options(), Document.class))
+                .doOnNext(this::apply)
+                .repeatWhen(completed -> completed.delayElements(properties.retryBackoff()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.retryBackoff())
+                        .maxBackoff(properties.maxRetryBackoff())
+                        .transientErrors(true)
+                        .filter(UserChangeStreamListener::isResumable)
+                        .doBeforeRetry(signal -> beforeRestart(signal.failure())));
+    }
+
+    private ChangeStreamOptions options() {
+        final BsonValue token = resumeToken.get();
+        return token == null ? ChangeStreamOptions.empty() : ChangeStreamOptions.builder().resumeAfter(token).build();
+    }
+
+    private void apply(final ChangeStreamEvent<Document> event) {
+        final OperationType operationType = event.getOperationType();
+        if (operationType == OperationType.INVALIDATE || operationType == OperationType.DROP
+                || operationType == OperationType.RENAME || operationType == OperationType.DROP_DATABASE) {
+            cache.invalidateAll();
+        } else if (event.getRaw() != null && event.getRaw().getDocumentKey() != null) {
+            final String id = toId(event.getRaw().getDocumentKey().get("_id"));
+            if (id == null) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidate(id);
+            }
+        }
+        resumeToken.set(operationType == OperationType.INVALIDATE ? null : event.getResumeToken());
+    }
+
+    private void beforeRestart(final Throwable failure) {
+        restarts.increment();
+        if (NestedExceptionUtils.getMostSpecificCause(failure) instanceof MongoException ex
+                && ex.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+            resumeToken.set(null);
+        }
+        if (resumeToken.get() == null) {
+            cache.invalidateAll();
+        }
+    }
+
+    void terminated(final Throwable failure) {
+        // without the stream only the TTL bounds how stale a cached user gets
+        cache.invalidateAll();
+        Counter.builder(METRIC_PREFIX + ".terminated")
+                .description("Change stream stopped on a failure it cannot resume from")
+                .tag("exception", NestedExceptionUtils.getMostSpecificCause(failure).getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    private static boolean isResumable(final Throwable failure) {
+        return NestedExceptionUtils.getMostSpecificCause(failure) instanceof MongoException;
+    }
+
+    private static String toId(final BsonValue id) {
+        if (id != null && id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id != null && id.isString() ? id.asString().getValue() : null;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.github.erf88.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.erf88.config.UserCountProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+@Component
+public class UserCountCache {
+
+    public static final String CACHE_NAME = "users-count";
+
+    private final AsyncCache<String, Long> cache;
+
+    public UserCountCache(final UserCountProperties properties, final MeterRegistry registry) {
+        this.cache = properties.cacheEnabled()
+                ? CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                        .maximumSize(properties.maximumSize())
+                        .expireAfterWrite(properties.ttl())
+                        .recordStats()
+                        .buildAsync(), CACHE_NAME)
+                : null;
+    }
+
+    public Mono<Long> get(final String key, final Supplier<Mono<Long>> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.get().toFuture()), true);
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+}
@@ -0,0 +1,370 @@
+package com.github.erf88.codec;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public final class GzipDataBuffers {
+
+    public static final String ENCODING = "gzip";
+
+    private static final int CHUNK_SIZE = 32 * 1024;
+    private static final int SCRATCH_SIZE = 8 * 1024;
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final int MAX_HEADER_SIZE = 64 * 1024;
+    private static final int MIN_RATIO_CHECK = 1024 * 1024;
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+
+    private GzipDataBuffers() {
+    }
+
+    public static boolean isGzip(final String contentEncoding) {
+        return contentEncoding != null && ENCODING.equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    public static Flux<DataBuffer> compress(final Publisher<DataBuffer> input, final DataBufferFactory bufferFactory) {
+        return Flux.using(() -> new Compressor(bufferFactory),
+                        compressor -> Flux.from(input)
+                                .concatMapIterable(compressor::compress)
+                                .concatWith(Flux.defer(() -> Flux.fromIterable(compressor.finish()))),
+                        Compressor::close)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    public static Flux<DataBuffer> decompress(final Publisher<DataBuffer> input, final DataBufferFactory bufferFactory,
+                                              final long maxSize, final int maxRatio) {
+        return Flux.using(() -> new Decompressor(bufferFactory, maxSize, maxRatio),
+                        decompressor -> Flux.from(input)
+                                .concatMap(buffer -> Flux.<DataBuffer, DataBuffer>generate(() -> buffer, decompressor::next, DataBufferUtils::release))
+                                .concatWith(Mono.<DataBuffer>fromRunnable(decompressor::finish)),
+                        Decompressor::close)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private static final class Compressor {
+
+        private final DataBufferFactory bufferFactory;
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] scratch = new byte[SCRATCH_SIZE];
+
+        private DataBuffer current;
+        private boolean started;
+
+        private Compressor(final DataBufferFactory bufferFactory) {
+            this.bufferFactory = bufferFactory;
+        }
+
+        private List<DataBuffer> compress(final DataBuffer input) {
+            final List<DataBuffer> output = new ArrayList<>(1);
+            try (DataBuffer.ByteBufferIterator iterator = input.readableByteBuffers()) {
+                start();
+                while (iterator.hasNext()) {
+                    final ByteBuffer chunk = iterator.next();
+                    crc.update(chunk.duplicate());
+                    deflater.setInput(chunk);
+                    while (!deflater.needsInput()) {
+                        deflate(output);
+                    }
+                }
+            } catch (RuntimeException ex) {
+                output.forEach(DataBufferUtils::release);
+                throw ex;
+            }
+            DataBufferUtils.release(input);
+            return output;
+        }
+
+        private List<DataBuffer> finish() {
+            final List<DataBuffer> output = new ArrayList<>(1);
+            start();
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(output);
+            }
+            final DataBuffer trailer = buffer();
+            writeInt(trailer, (int) crc.getValue());
+            writeInt(trailer, (int) deflater.getBytesRead());
+            output.add(trailer);
+            current = null;
+            return output;
+        }
+
+        private void start() {
+            if (!started) {
+                buffer().write(HEADER);
+                started = true;
+            }
+        }
+
+        private void deflate(final List<DataBuffer> output) {
+            final int written = deflater.deflate(scratch);
+            final DataBuffer buffer = buffer().write(scratch, 0, written);
+            if (buffer.readableByteCount() >= CHUNK_SIZE) {
+                output.add(buffer);
+                current = null;
+            }
+        }
+
+        private DataBuffer buffer() {
+            if (current == null) {
+                current = bufferFactory.allocateBuffer(CHUNK_SIZE + SCRATCH_SIZE);
+            }
+            return current;
+        }
+
+        private void close() {
+            deflater.end();
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+        }
+
+        private static void writeInt(final DataBuffer buffer, final int value) {
+            buffer.write(new byte[] { (byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24) });
+        }
+
+    }
+
+    private static final class Decompressor {
+
+        private enum State { HEADER, EXTRA_LENGTH, EXTRA, NAME, COMMENT, HEADER_CRC, BODY, TRAILER }
+
+        private final DataBufferFactory bufferFactory;
+        private final long maxSize;
+        private final int maxRatio;
+        private final Inflater inflater = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] scratch = new byte[SCRATCH_SIZE];
+        private final byte[] fields = new byte[HEADER_SIZE];
+        private final ByteBuffer window = ByteBuffer.allocate(SCRATCH_SIZE).limit(0);
+
+        private State state = State.HEADER;
+        private int filled;
+        private int flags;
+        private int skip;
+        private int headerSize;
+        private long compressed;
+        private long inflated;
+        private DataBuffer current;
+
+        private Decompressor(final DataBufferFactory bufferFactory, final long maxSize, final int maxRatio) {
+            this.bufferFactory = bufferFactory;
+            this.maxSize = maxSize;
+            this.maxRatio = maxRatio;
+        }
+
+        private DataBuffer next(final DataBuffer input, final SynchronousSink<DataBuffer> sink) {
+            try {
+                final DataBuffer output = decompress(input);
+                if (output == null) {
+                    sink.complete();
+                } else {
+                    sink.next(output);
+                }
+            } catch (DataFormatException ex) {
+                sink.error(new DecodingException("Invalid gzip data: " + ex.getMessage(), ex));
+            }
+            return input;
+        }
+
+        private DataBuffer decompress(final DataBuffer input) throws DataFormatException {
+            while (true) {
+                if (!window.hasRemaining() && (state != State.BODY || inflater.needsInput()) && !fill(input)) {
+                    return take();
+                }
+                switch (state) {
+                    case BODY -> {
+                        final DataBuffer output = inflate();
+                        if (output != null) {
+                            return output;
+                        }
+                    }
+                    case TRAILER -> readTrailer();
+                    default -> readHeader();
+                }
+            }
+        }
+
+        private void finish() {
+            if (state != State.HEADER || filled > 0) {
+                throw new DecodingException("Invalid gzip data: unexpected end of stream");
+            }
+        }
+
+        private void readHeader() {
+            while (window.hasRemaining() && state != State.BODY) {
+                if (++headerSize > MAX_HEADER_SIZE) {
+                    throw new DecodingException("Invalid gzip data: header exceeds " + MAX_HEADER_SIZE + " bytes");
+                }
+                final byte value = window.get();
+                switch (state) {
+                    case HEADER -> {
+                        fields[filled++] = value;
+                        if (filled == 2 && (fields[0] != HEADER[0] || fields[1] != HEADER[1])) {
+                            throw new DecodingException("Invalid gzip data: not in gzip format");
+                        }
+                        if (filled == 3 && value != Deflater.DEFLATED) {
+                            throw new DecodingException("Invalid gzip data: unsupported compression method " + value);
+                        }
+                        if (filled == HEADER_SIZE) {
+                            flags = fields[3] & 0xff;
+                            filled = 0;
+                            next(State.HEADER);
+                        }
+                    }
+                    case EXTRA_LENGTH -> {
+                        fields[filled++] = value;
+                        if (filled == 2) {
+                            skip = (fields[0] & 0xff) | (fields[1] & 0xff) << 8;
+                            filled = 0;
+                            if (skip > 0) {
+                                state = State.EXTRA;
+                            } else {
+                                next(State.EXTRA);
+                            }
+                        }
+                    }
+                    case EXTRA, HEADER_CRC -> {
+                        if (--skip == 0) {
+                            next(state);
+                        }
+                    }
+                    case NAME, COMMENT -> {
+                        if (value == 0) {
+                            next(state);
+                        }
+                    }
+                    default -> throw new IllegalStateException(state.name());
+                }
+            }
+        }
+
+        private void next(final State completed) {
+            if (completed == State.HEADER && (flags & FEXTRA) != 0) {
+                state = State.EXTRA_LENGTH;
+            } else if (completed.compareTo(State.NAME) < 0 && (flags & FNAME) != 0) {
+                state = State.NAME;
+            } else if (completed.compareTo(State.COMMENT) < 0 && (flags & FCOMMENT) != 0) {
+                state = State.COMMENT;
+            } else if (completed.compareTo(State.HEADER_CRC) < 0 && (flags & FHCRC) != 0) {
+                skip = 2;
+                state = State.HEADER_CRC;
+            } else {
+                headerSize = 0;
+                inflater.reset();
+                crc.reset();
+                state = State.BODY;
+            }
+        }
+
+        private DataBuffer inflate() throws DataFormatException {
+            if (inflater.needsInput()) {
+                inflater.setInput(window);
+            }
+            final int read = inflater.inflate(scratch);
+            if (read > 0) {
+                checkLimits(read);
+                crc.update(scratch, 0, read);
+                if (buffer().write(scratch, 0, read).readableByteCount() >= CHUNK_SIZE) {
+                    return take();
+                }
+            }
+            if (inflater.finished()) {
+                state = State.TRAILER;
+            } else if (inflater.needsDictionary()) {
+                throw new DataFormatException("preset dictionary is not supported");
+            }
+            return null;
+        }
+
+        private void readTrailer() {
+            while (window.hasRemaining() && filled < TRAILER_SIZE) {
+                fields[filled++] = window.get();
+            }
+            if (filled < TRAILER_SIZE) {
+                return;
+            }
+            if (readInt(fields, 0) != (int) crc.getValue()) {
+                throw new DecodingException("Invalid gzip data: CRC mismatch");
+            }
+            if (readInt(fields, 4) != (int) inflater.getBytesWritten()) {
+                throw new DecodingException("Invalid gzip data: size mismatch");
+            }
+            filled = 0;
+            state = State.HEADER;
+        }
+
+        private boolean fill(final DataBuffer input) {
+            final int length = Math.min(window.capacity(), input.readableByteCount());
+            if (length == 0) {
+                return false;
+            }
+            input.read(window.array(), 0, length);
+            window.clear().limit(length);
+            compressed += length;
+            return true;
+        }
+
+        private void checkLimits(final int read) {
+            inflated += read;
+            if (inflated > maxSize) {
+                throw new DataBufferLimitException("Inflated gzip data exceeds the limit of " + maxSize + " bytes");
+            }
+            if (inflated > MIN_RATIO_CHECK && inflated > compressed * maxRatio) {
+                throw new DataBufferLimitException("Gzip compression ratio exceeds the limit of " + maxRatio);
+            }
+        }
+
+        private DataBuffer take() {
+            final DataBuffer output = current;
+            if (output == null || output.readableByteCount() == 0) {
+                return null;
+            }
+            current = null;
+            return output;
+        }
+
+        private DataBuffer buffer() {
+            if (current == null) {
+                current = bufferFactory.allocateBuffer(CHUNK_SIZE + SCRATCH_SIZE);
+            }
+            return current;
+        }
+
+        private void close() {
+            inflater.end();
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+        }
+
+        private static int readInt(final byte[] bytes, final int offset) {
+            return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (bytes[offset + 3] & 0xff) << 24;
+        }
+
+    }
+
+}
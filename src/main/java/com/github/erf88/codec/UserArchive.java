@@ -0,0 +1,87 @@
+package com.github.erf88.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.erf88.config.UserArchiveProperties;
+import com.github.erf88.model.UserDocument;
+import com.github.erf88.service.exception.ArchiveAccessDeniedException;
+import com.github.erf88.service.exception.ImportTooLargeException;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+@Component
+public class UserArchive {
+
+    public static final String FILENAME = "users.ndjson.gz";
+    public static final String MEDIA_TYPE_VALUE = "application/gzip";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final String BEARER = "Bearer ";
+
+    private static final DataBufferFactory HEAP = DefaultDataBufferFactory.sharedInstance;
+    private static final ResolvableType DOCUMENT_TYPE = ResolvableType.forClass(UserDocument.class);
+
+    private final Jackson2JsonEncoder encoder;
+    private final Jackson2JsonDecoder decoder;
+    private final UserArchiveProperties properties;
+
+    public UserArchive(final ObjectMapper objectMapper, final UserArchiveProperties properties) {
+        this.encoder = new Jackson2JsonEncoder(objectMapper, APPLICATION_NDJSON);
+        this.decoder = new Jackson2JsonDecoder(objectMapper, APPLICATION_NDJSON);
+        this.properties = properties;
+    }
+
+    public static boolean isGzip(final MediaType contentType, final String contentEncoding) {
+        return (contentType != null && MEDIA_TYPE.equalsTypeAndSubtype(contentType)) || GzipDataBuffers.isGzip(contentEncoding);
+    }
+
+    // Archives carry password hashes, so both directions need the configured bearer token; without one they are disabled.
+    public void authorize(final String authorization) {
+        final String token = properties.token();
+        if (token == null || token.isBlank() || authorization == null || !MessageDigest.isEqual(
+                (BEARER + token).getBytes(StandardCharsets.UTF_8), authorization.trim().getBytes(StandardCharsets.UTF_8))) {
+            throw new ArchiveAccessDeniedException("Archive access denied");
+        }
+    }
+
+    public Flux<DataBuffer> write(final Flux<UserDocument> documents, final DataBufferFactory bufferFactory) {
+        return GzipDataBuffers.compress(encoder.encode(documents, bufferFactory, DOCUMENT_TYPE, APPLICATION_NDJSON, Map.of()), bufferFactory);
+    }
+
+    public Flux<UserDocument> read(final Flux<DataBuffer> body, final boolean gzip) {
+        final Flux<DataBuffer> input = gzip
+                ? GzipDataBuffers.decompress(body, HEAP, properties.maxInflatedSize().toBytes(), properties.maxCompressionRatio())
+                : body.map(UserArchive::toHeap);
+        return decoder.decode(input, DOCUMENT_TYPE, APPLICATION_NDJSON, Map.of())
+                .cast(UserDocument.class)
+                .onErrorMap(DecodingException.class, ex -> new ServerWebInputException("Failed to read import body", null, ex))
+                .onErrorMap(DataBufferLimitException.class, ex -> new ImportTooLargeException(ex.getMessage()));
+    }
+
+    // Jackson2Tokenizer releases a buffer it fails to parse and its concatMapIterable then discards the same buffer,
+    // so the decoder is only handed heap buffers, for which the second release is a no-op.
+    private static DataBuffer toHeap(final DataBuffer buffer) {
+        try {
+            return HEAP.allocateBuffer(buffer.readableByteCount()).write(buffer);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.github.erf88.codec;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = UserCodecConfig.ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
+public class UserCodecConfig implements WebFluxConfigurer {
+
+    public static final String ENABLED_PROPERTY = "users.codecs.enabled";
+
+    @Override
+    public void configureHttpMessageCodecs(final ServerCodecConfigurer configurer) {
+        configurer.customCodecs().registerWithDefaultConfig(new UserRequestDecoder());
+        configurer.customCodecs().registerWithDefaultConfig(new UserJsonEncoder());
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.github.erf88.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.github.erf88.controller.exceptions.StandardError;
+import com.github.erf88.controller.exceptions.ValidationError;
+import com.github.erf88.model.response.UserResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+public class UserJsonEncoder extends AbstractEncoder<Object> implements HttpMessageEncoder<Object> {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final byte NONE = 0;
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString PATH = new SerializedString("path");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString ERROR = new SerializedString("error");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString ERRORS = new SerializedString("errors");
+    private static final SerializableString FIELD_NAME = new SerializedString("fieldName");
+
+    private final JsonFactory jsonFactory;
+
+    public UserJsonEncoder() {
+        this(JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build());
+    }
+
+    public UserJsonEncoder(final JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), MediaType.APPLICATION_NDJSON);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public boolean canEncode(final ResolvableType elementType, final MimeType mimeType) {
+        final Class<?> type = elementType.toClass();
+        return (UserResponse.class == type || StandardError.class.isAssignableFrom(type)) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return List.of(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(final Publisher<?> input, final DataBufferFactory bufferFactory, final ResolvableType elementType,
+                                   final MimeType mimeType, final Map<String, Object> hints) {
+        if (input instanceof Mono) {
+            return Mono.from(input).map(value -> write(value, bufferFactory, NONE, NONE)).flux();
+        }
+        if (mimeType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+            return Flux.from(input).map(value -> write(value, bufferFactory, NONE, (byte) '\n'));
+        }
+        return Flux.defer(() -> {
+            final boolean[] first = { true };
+            return Flux.from(input)
+                    .map(value -> {
+                        final byte prefix = first[0] ? (byte) '[' : (byte) ',';
+                        first[0] = false;
+                        return write(value, bufferFactory, prefix, NONE);
+                    })
+                    .switchIfEmpty(Mono.fromCallable(() -> bufferFactory.allocateBuffer(1).write((byte) '[')))
+                    .concatWith(Mono.fromCallable(() -> bufferFactory.allocateBuffer(1).write((byte) ']')));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(final Object value, final DataBufferFactory bufferFactory, final ResolvableType valueType,
+                                  final MimeType mimeType, final Map<String, Object> hints) {
+        return write(value, bufferFactory, NONE, NONE);
+    }
+
+    private DataBuffer write(final Object value, final DataBufferFactory bufferFactory, final byte prefix, final byte suffix) {
+        final DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_CAPACITY);
+        boolean release = true;
+        try {
+            if (prefix != NONE) {
+                buffer.write(prefix);
+            }
+            try (JsonGenerator generator = jsonFactory.createGenerator(buffer.asOutputStream())) {
+                if (value instanceof UserResponse user) {
+                    writeUser(generator, user);
+                } else if (value instanceof StandardError error) {
+                    writeError(generator, error);
+                } else {
+                    throw new EncodingException("Unsupported value type: " + value.getClass().getName());
+                }
+            }
+            if (suffix != NONE) {
+                buffer.write(suffix);
+            }
+            release = false;
+            return buffer;
+        } catch (IOException ex) {
+            throw new EncodingException("JSON encoding error: " + ex.getMessage(), ex);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+
+    private static void writeUser(final JsonGenerator generator, final UserResponse user) throws IOException {
+        generator.writeStartObject();
+        writeIfPresent(generator, ID, user.id());
+        writeIfPresent(generator, NAME, user.name());
+        writeIfPresent(generator, EMAIL, user.email());
+        generator.writeEndObject();
+    }
+
+    private static void writeError(final JsonGenerator generator, final StandardError error) throws IOException {
+        generator.writeStartObject();
+        write(generator, TIMESTAMP, error.getTimestamp() == null ? null : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(error.getTimestamp()));
+        write(generator, PATH, error.getPath());
+        generator.writeFieldName(STATUS);
+        if (error.getStatus() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(error.getStatus());
+        }
+        write(generator, ERROR, error.getError());
+        write(generator, MESSAGE, error.getMessage());
+        if (error instanceof ValidationError validation) {
+            generator.writeFieldName(ERRORS);
+            generator.writeStartArray();
+            for (ValidationError.FieldError field : validation.getErrors()) {
+                generator.writeStartObject();
+                write(generator, FIELD_NAME, field.getFieldName());
+                write(generator, MESSAGE, field.getMessage());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void write(final JsonGenerator generator, final SerializableString name, final String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    private static void writeIfPresent(final JsonGenerator generator, final SerializableString name, final String value) throws IOException {
+        if (value != null) {
+            write(generator, name, value);
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.github.erf88.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.github.erf88.model.request.UserRequest;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class UserRequestDecoder extends AbstractDataBufferDecoder<UserRequest> {
+
+    private final JsonFactory jsonFactory;
+
+    public UserRequestDecoder() {
+        this(new JsonFactory());
+    }
+
+    public UserRequestDecoder(final JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), MediaType.APPLICATION_NDJSON);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public boolean canDecode(final ResolvableType elementType, final MimeType mimeType) {
+        return UserRequest.class == elementType.toClass() && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<UserRequest> decode(final Publisher<DataBuffer> input, final ResolvableType elementType, final MimeType mimeType,
+                                    final Map<String, Object> hints) {
+        return Flux.defer(() -> {
+            final Reader reader = new Reader(nonBlockingParser(), true, getMaxInMemorySize());
+            return Flux.from(input)
+                    .concatMapIterable(reader::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(reader.end())))
+                    .doFinally(signal -> reader.close());
+        });
+    }
+
+    @Override
+    public Mono<UserRequest> decodeToMono(final Publisher<DataBuffer> input, final ResolvableType elementType, final MimeType mimeType,
+                                          final Map<String, Object> hints) {
+        return DataBufferUtils.join(input, getMaxInMemorySize())
+                .flatMap(buffer -> Mono.justOrEmpty(decode(buffer, elementType, mimeType, hints)));
+    }
+
+    @Override
+    public UserRequest decode(final DataBuffer buffer, final ResolvableType targetType, final MimeType mimeType,
+                              final Map<String, Object> hints) {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            final ByteBuffer first = iterator.hasNext() ? iterator.next() : null;
+            final JsonParser parser = first != null && first.hasArray() && !iterator.hasNext()
+                    ? jsonFactory.createParser(first.array(), first.arrayOffset() + first.position(), first.remaining())
+                    : jsonFactory.createParser(buffer.asInputStream());
+            final Reader reader = new Reader(parser, false, -1);
+            try {
+                return reader.read();
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            throw new DecodingException("Could not create JSON parser", ex);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private JsonParser nonBlockingParser() {
+        try {
+            return jsonFactory.createNonBlockingByteBufferParser();
+        } catch (IOException ex) {
+            throw new DecodingException("Could not create JSON parser", ex);
+        }
+    }
+
+    private static final class Reader {
+
+        private final JsonParser parser;
+        private final boolean sequence;
+        private final int maxInMemorySize;
+
+        private int depth;
+        private int base;
+        private long start;
+        private String field;
+        private String name;
+        private String email;
+        private String password;
+
+        private Reader(final JsonParser parser, final boolean sequence, final int maxInMemorySize) {
+            this.parser = parser;
+            this.sequence = sequence;
+            this.maxInMemorySize = maxInMemorySize;
+        }
+
+        private UserRequest read() {
+            try {
+                final UserRequest value = next();
+                if (depth != 0) {
+                    throw new DecodingException("JSON decoding error: unexpected end of input");
+                }
+                return value;
+            } catch (JsonProcessingException ex) {
+                throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+            } catch (IOException ex) {
+                throw new DecodingException("I/O error while parsing input stream", ex);
+            }
+        }
+
+        private List<UserRequest> feed(final DataBuffer buffer) {
+            final List<UserRequest> values = new ArrayList<>(1);
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ((ByteBufferFeeder) parser.getNonBlockingInputFeeder()).feedInput(iterator.next());
+                    drain(values);
+                }
+                if (depth > base) {
+                    checkLimit();
+                }
+            } catch (JsonProcessingException ex) {
+                throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+            } catch (IOException ex) {
+                throw new DecodingException("I/O error while parsing input stream", ex);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            return values;
+        }
+
+        private List<UserRequest> end() {
+            final List<UserRequest> values = new ArrayList<>(1);
+            try {
+                parser.getNonBlockingInputFeeder().endOfInput();
+                drain(values);
+            } catch (JsonProcessingException ex) {
+                throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+            } catch (IOException ex) {
+                throw new DecodingException("I/O error while parsing input stream", ex);
+            }
+            if (depth != 0) {
+                throw new DecodingException("JSON decoding error: unexpected end of input");
+            }
+            return values;
+        }
+
+        private void drain(final List<UserRequest> values) throws IOException {
+            UserRequest value;
+            while ((value = next()) != null) {
+                values.add(value);
+            }
+        }
+
+        private UserRequest next() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (depth == base) {
+                    if (token == JsonToken.START_OBJECT) {
+                        if (maxInMemorySize >= 0) {
+                            start = parser.currentTokenLocation().getByteOffset();
+                        }
+                        field = name = email = password = null;
+                        depth++;
+                    } else if (token == JsonToken.START_ARRAY && depth == 0 && sequence) {
+                        base = depth = 1;
+                    } else if (token == JsonToken.END_ARRAY && depth == 1) {
+                        base = depth = 0;
+                    } else if (token != JsonToken.VALUE_NULL) {
+                        throw new DecodingException("JSON decoding error: cannot decode UserRequest from " + token);
+                    }
+                } else if (depth == base + 1) {
+                    switch (token) {
+                        case FIELD_NAME -> field = parser.currentName();
+                        case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_TRUE, VALUE_FALSE -> assign(parser.getText());
+                        case VALUE_NULL -> assign(null);
+                        case START_OBJECT, START_ARRAY -> {
+                            if (known(field)) {
+                                throw new DecodingException("JSON decoding error: cannot decode String from " + token + " for '" + field + "'");
+                            }
+                            depth++;
+                        }
+                        case END_OBJECT -> {
+                            checkLimit();
+                            depth--;
+                            return new UserRequest(name, email, password);
+                        }
+                        default -> throw new DecodingException("JSON decoding error: unexpected " + token);
+                    }
+                } else if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            }
+            return null;
+        }
+
+        private void checkLimit() {
+            if (maxInMemorySize >= 0 && parser.currentLocation().getByteOffset() - start > maxInMemorySize) {
+                throw new DataBufferLimitException("Exceeded limit on max bytes per JSON object: " + maxInMemorySize);
+            }
+        }
+
+        private void assign(final String value) {
+            switch (field) {
+                case "name" -> name = value;
+                case "email" -> email = value;
+                case "password" -> password = value;
+                default -> {
+                }
+            }
+        }
+
+        private static boolean known(final String field) {
+            return "name".equals(field) || "email".equals(field) || "password".equals(field);
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing buffered to release
+            }
+        }
+
+    }
+
+}
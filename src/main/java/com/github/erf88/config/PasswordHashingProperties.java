@@ -0,0 +1,11 @@
+package com.github.erf88.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "users.password")
+public record PasswordHashingProperties(
+        @DefaultValue("10") int strength,
+        @DefaultValue("0") int threads,
+        @DefaultValue("1000") int queueCapacity
+) {}
@@ -0,0 +1,12 @@
+package com.github.erf88.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "users.archive")
+public record UserArchiveProperties(
+        @DefaultValue("1GB") DataSize maxInflatedSize,
+        @DefaultValue("100") int maxCompressionRatio,
+        String token
+) {}
@@ -0,0 +1,13 @@
+package com.github.erf88.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.cache.change-stream")
+public record UserChangeStreamProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1s") Duration retryBackoff,
+        @DefaultValue("30s") Duration maxRetryBackoff
+) {}
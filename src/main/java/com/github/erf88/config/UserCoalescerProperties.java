@@ -0,0 +1,14 @@
+package com.github.erf88.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.coalescer")
+public record UserCoalescerProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100") int maxBatchSize,
+        @DefaultValue("2ms") Duration maxWait,
+        @DefaultValue("4") int concurrency
+) {}
@@ -0,0 +1,13 @@
+package com.github.erf88.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.count")
+public record UserCountProperties(
+        @DefaultValue("true") boolean cacheEnabled,
+        @DefaultValue("1000") long maximumSize,
+        @DefaultValue("5s") Duration ttl
+) {}
@@ -0,0 +1,15 @@
+package com.github.erf88.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.write-behind")
+public record UserWriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("500") int maxBatchSize,
+        @DefaultValue("10ms") Duration maxWait,
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("2") int concurrency
+) {}
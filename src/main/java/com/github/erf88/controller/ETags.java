@@ -0,0 +1,48 @@
+package com.github.erf88.controller;
+
+import com.github.erf88.entity.User;
+import com.github.erf88.service.UserFields;
+import com.github.erf88.service.exception.PreconditionFailedException;
+
+public final class ETags {
+
+    public static final String ANY = "*";
+
+    private static final char SEPARATOR = '-';
+
+    private ETags() {
+    }
+
+    // The id is part of the tag so a deleted and recreated user (or another user on the same e-mail) never matches.
+    public static String of(final User user, final UserFields fields) {
+        if (user.getId() == null || user.getVersion() == null) {
+            return null;
+        }
+        final String suffix = fields.name() && fields.email() ? "" : fields.name() ? "-n" : fields.email() ? "-e" : "-i";
+        return "\"" + user.getId() + SEPARATOR + user.getVersion() + suffix + "\"";
+    }
+
+    public static Long version(final String ifMatch, final String id) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        final String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new PreconditionFailedException("Invalid If-Match: %s".formatted(tag));
+        }
+        int end = tag.length() - 1;
+        if (end > 3 && tag.charAt(end - 2) == SEPARATOR && "nei".indexOf(tag.charAt(end - 1)) >= 0) {
+            end -= 2;
+        }
+        final int separator = id.length() + 1;
+        if (end <= separator + 1 || tag.charAt(separator) != SEPARATOR || !tag.regionMatches(1, id, 0, id.length())) {
+            throw new PreconditionFailedException("If-Match does not match user %s: %s".formatted(id, tag));
+        }
+        try {
+            return Long.parseLong(tag, separator + 1, end, 10);
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("Invalid If-Match: %s".formatted(tag));
+        }
+    }
+
+}
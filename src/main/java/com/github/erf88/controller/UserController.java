@@ -1,26 +1,89 @@
 package com.github.erf88.controller;
 
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.model.request.UserLookupRequest;
 import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.BatchItemResponse;
+import com.github.erf88.model.response.LookupItemResponse;
+import com.github.erf88.model.response.SearchItemResponse;
+import com.github.erf88.model.response.UserCountResponse;
+import com.github.erf88.model.response.UserImportResponse;
 import com.github.erf88.model.response.UserResponse;
+import com.github.erf88.validator.OnCreate;
 import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
+import static com.github.erf88.service.UserService.DEFAULT_PAGE_SIZE;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
 public interface UserController {
 
     @PostMapping
-    ResponseEntity<Mono<Void>> save(@Valid @RequestBody UserRequest request);
+    Mono<ResponseEntity<Void>> save(@Validated({ Default.class, OnCreate.class }) @RequestBody UserRequest request,
+                                    @RequestParam(defaultValue = "false") boolean ifAbsent);
+
+    @PostMapping(value = "/batch", consumes = { APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+    ResponseEntity<Flux<BatchItemResponse>> saveAll(@RequestBody Flux<UserRequest> requests);
+
+    @GetMapping(value = "/by-email")
+    Mono<ResponseEntity<UserResponse>> findByEmail(@RequestParam String email, @RequestParam(required = false) String fields,
+                                                   ServerWebExchange exchange);
+
+    @GetMapping(value = "/search", produces = { APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+    ResponseEntity<Flux<SearchItemResponse>> search(@RequestParam String q,
+                                                    @RequestParam(required = false) String mode,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                                    @RequestParam(required = false) String fields);
+
+    @GetMapping(value = "/count")
+    ResponseEntity<Mono<UserCountResponse>> count(@RequestParam(required = false) String mode, @RequestParam(required = false) String name);
+
+    @GetMapping(value = "/export", produces = UserArchive.MEDIA_TYPE_VALUE)
+    ResponseEntity<Flux<DataBuffer>> export(@RequestHeader(value = AUTHORIZATION, required = false) String authorization,
+                                            ServerWebExchange exchange);
+
+    @PostMapping(value = "/import", consumes = { APPLICATION_NDJSON_VALUE, UserArchive.MEDIA_TYPE_VALUE })
+    ResponseEntity<Mono<UserImportResponse>> importAll(@RequestHeader(value = AUTHORIZATION, required = false) String authorization,
+                                                       @RequestHeader(value = CONTENT_TYPE) MediaType contentType,
+                                                       @RequestHeader(value = CONTENT_ENCODING, required = false) String contentEncoding,
+                                                       @RequestBody Flux<DataBuffer> body);
 
     @GetMapping(value = "/{id}")
-    ResponseEntity<Mono<UserResponse>> findById(@PathVariable String id);
+    Mono<ResponseEntity<UserResponse>> findById(@PathVariable String id, @RequestParam(required = false) String fields,
+                                                ServerWebExchange exchange);
+
+    @PostMapping(value = "/lookup", produces = { APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+    ResponseEntity<Flux<LookupItemResponse>> lookup(@Valid @RequestBody UserLookupRequest request,
+                                                    @RequestParam(required = false) String fields);
+
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    Mono<ResponseEntity<List<UserResponse>>> findAll(@RequestParam(required = false) String after,
+                                                     @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                                     @RequestParam(required = false) String fields);
 
-    @GetMapping
-    ResponseEntity<Flux<UserResponse>> findAll();
+    @GetMapping(produces = { APPLICATION_NDJSON_VALUE, TEXT_EVENT_STREAM_VALUE })
+    ResponseEntity<Flux<UserResponse>> stream(@RequestParam(required = false) String fields);
 
     @PatchMapping(value = "/{id}")
-    ResponseEntity<Mono<UserResponse>> update(@PathVariable String id, @RequestBody UserRequest request);
+    Mono<ResponseEntity<UserResponse>> update(@PathVariable String id, @Validated @RequestBody UserRequest request,
+                                              @RequestHeader(value = IF_MATCH, required = false) String ifMatch);
 
     @DeleteMapping(value = "/{id}")
     ResponseEntity<Mono<Void>> delete(@PathVariable String id);
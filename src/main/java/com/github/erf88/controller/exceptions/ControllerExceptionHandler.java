@@ -1,6 +1,13 @@
 package com.github.erf88.controller.exceptions;
 
+import com.github.erf88.service.exception.ArchiveAccessDeniedException;
+import com.github.erf88.service.exception.DuplicateUserException;
+import com.github.erf88.service.exception.ImportTooLargeException;
+import com.github.erf88.service.exception.InvalidCursorException;
+import com.github.erf88.service.exception.InvalidFieldsException;
+import com.github.erf88.service.exception.InvalidSearchException;
 import com.github.erf88.service.exception.ObjectNotFoundException;
+import com.github.erf88.service.exception.PreconditionFailedException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
@@ -13,24 +20,28 @@ import org.springframework.web.reactive.result.method.annotation.ResponseEntityE
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.Clock;
 import java.time.OffsetDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @ControllerAdvice
 public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private static final Clock CLOCK = Clock.systemDefaultZone();
+
     @ExceptionHandler(DuplicateKeyException.class)
     public Mono<ResponseEntity<StandardError>> handleDuplicateKeyException(final DuplicateKeyException ex, final ServerHttpRequest request) {
-        String message;
-        if (ex.getMessage().contains("email dup key")) {
-            message = "E-mail already registered";
-        } else {
-            message = "Duplicate key exception";
-        }
-        StandardError standardError = getStandardError(BAD_REQUEST.value(), BAD_REQUEST.getReasonPhrase(), message, request.getPath().toString());
-        return Mono.just(ResponseEntity.badRequest().body(standardError));
+        final String message = ex instanceof DuplicateUserException ? ex.getMessage() : "Duplicate key exception";
+        StandardError standardError = getStandardError(CONFLICT.value(), CONFLICT.getReasonPhrase(), message, request.getPath().toString());
+        return Mono.just(ResponseEntity.status(CONFLICT).body(standardError));
     }
 
     @ExceptionHandler(ObjectNotFoundException.class)
@@ -39,6 +50,48 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         return Mono.just(ResponseEntity.status(NOT_FOUND).body(standardError));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public Mono<ResponseEntity<StandardError>> handleInvalidCursorException(final InvalidCursorException ex, final ServerHttpRequest request) {
+        StandardError standardError = getStandardError(BAD_REQUEST.value(), BAD_REQUEST.getReasonPhrase(), ex.getMessage(), request.getPath().toString());
+        return Mono.just(ResponseEntity.badRequest().body(standardError));
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public Mono<ResponseEntity<StandardError>> handleInvalidFieldsException(final InvalidFieldsException ex, final ServerHttpRequest request) {
+        StandardError standardError = getStandardError(BAD_REQUEST.value(), BAD_REQUEST.getReasonPhrase(), ex.getMessage(), request.getPath().toString());
+        return Mono.just(ResponseEntity.badRequest().body(standardError));
+    }
+
+    @ExceptionHandler(InvalidSearchException.class)
+    public Mono<ResponseEntity<StandardError>> handleInvalidSearchException(final InvalidSearchException ex, final ServerHttpRequest request) {
+        StandardError standardError = getStandardError(BAD_REQUEST.value(), BAD_REQUEST.getReasonPhrase(), ex.getMessage(), request.getPath().toString());
+        return Mono.just(ResponseEntity.badRequest().body(standardError));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public Mono<ResponseEntity<StandardError>> handlePreconditionFailedException(final PreconditionFailedException ex, final ServerHttpRequest request) {
+        StandardError standardError = getStandardError(PRECONDITION_FAILED.value(), PRECONDITION_FAILED.getReasonPhrase(), ex.getMessage(), request.getPath().toString());
+        return Mono.just(ResponseEntity.status(PRECONDITION_FAILED).body(standardError));
+    }
+
+    @ExceptionHandler(ArchiveAccessDeniedException.class)
+    public Mono<ResponseEntity<StandardError>> handleArchiveAccessDeniedException(final ArchiveAccessDeniedException ex, final ServerHttpRequest request) {
+        StandardError standardError = getStandardError(FORBIDDEN.value(), FORBIDDEN.getReasonPhrase(), ex.getMessage(), request.getPath().toString());
+        return Mono.just(ResponseEntity.status(FORBIDDEN).body(standardError));
+    }
+
+    @ExceptionHandler(ImportTooLargeException.class)
+    public Mono<ResponseEntity<StandardError>> handleImportTooLargeException(final ImportTooLargeException ex, final ServerHttpRequest request) {
+        StandardError standardError = getStandardError(PAYLOAD_TOO_LARGE.value(), PAYLOAD_TOO_LARGE.getReasonPhrase(), ex.getMessage(), request.getPath().toString());
+        return Mono.just(ResponseEntity.status(PAYLOAD_TOO_LARGE).body(standardError));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public Mono<ResponseEntity<StandardError>> handleRejectedExecutionException(final RejectedExecutionException ex, final ServerHttpRequest request) {
+        StandardError standardError = getStandardError(SERVICE_UNAVAILABLE.value(), SERVICE_UNAVAILABLE.getReasonPhrase(), "Server is busy, try again later", request.getPath().toString());
+        return Mono.just(ResponseEntity.status(SERVICE_UNAVAILABLE).body(standardError));
+    }
+
     @Override
     protected Mono<ResponseEntity<Object>> handleWebExchangeBindException(
             WebExchangeBindException ex,
@@ -46,7 +99,7 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
             HttpStatusCode httpStatusCode,
             ServerWebExchange serverWebExchange) {
 
-        final OffsetDateTime timestamp = OffsetDateTime.now();
+        final OffsetDateTime timestamp = OffsetDateTime.now(CLOCK);
         final String path = serverWebExchange.getRequest().getPath().toString();
         final Integer status = httpStatusCode.value();
         final String error = "Validation error";
@@ -58,13 +111,7 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
     private StandardError getStandardError(int status, String error, String message, String path) {
-        return StandardError.builder()
-                .timestamp(OffsetDateTime.now())
-                .status(status)
-                .error(error)
-                .message(message)
-                .path(path)
-                .build();
+        return new StandardError(OffsetDateTime.now(CLOCK), path, status, error, message);
     }
 
 }
@@ -0,0 +1,18 @@
+package com.github.erf88.controller.exceptions;
+
+import jakarta.validation.ConstraintViolation;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+public class RequestValidationException extends RuntimeException {
+
+    private final transient Set<? extends ConstraintViolation<?>> violations;
+
+    public RequestValidationException(final Set<? extends ConstraintViolation<?>> violations) {
+        super("Error on validation attributes", null, false, false);
+        this.violations = violations;
+    }
+
+}
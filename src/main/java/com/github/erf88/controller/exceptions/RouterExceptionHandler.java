@@ -0,0 +1,82 @@
+package com.github.erf88.controller.exceptions;
+
+import com.github.erf88.controller.functional.UserRouter;
+import com.github.erf88.service.exception.ArchiveAccessDeniedException;
+import com.github.erf88.service.exception.DuplicateUserException;
+import com.github.erf88.service.exception.ImportTooLargeException;
+import com.github.erf88.service.exception.InvalidCursorException;
+import com.github.erf88.service.exception.InvalidFieldsException;
+import com.github.erf88.service.exception.InvalidSearchException;
+import com.github.erf88.service.exception.ObjectNotFoundException;
+import com.github.erf88.service.exception.PreconditionFailedException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@Component
+@ConditionalOnProperty(name = UserRouter.MODE_PROPERTY, havingValue = UserRouter.FUNCTIONAL)
+public class RouterExceptionHandler {
+
+    private static final Clock CLOCK = Clock.systemDefaultZone();
+
+    public Mono<ServerResponse> handle(final Throwable ex, final ServerRequest request) {
+        if (ex instanceof RequestValidationException validation) {
+            return handleValidation(validation, request);
+        }
+        if (ex instanceof ObjectNotFoundException) {
+            return error(NOT_FOUND, ex.getMessage(), request);
+        }
+        if (ex instanceof DuplicateKeyException) {
+            return error(CONFLICT, ex instanceof DuplicateUserException ? ex.getMessage() : "Duplicate key exception", request);
+        }
+        if (ex instanceof InvalidCursorException || ex instanceof InvalidFieldsException || ex instanceof InvalidSearchException) {
+            return error(BAD_REQUEST, ex.getMessage(), request);
+        }
+        if (ex instanceof ServerWebInputException input) {
+            return error(BAD_REQUEST, input.getReason(), request);
+        }
+        if (ex instanceof PreconditionFailedException) {
+            return error(PRECONDITION_FAILED, ex.getMessage(), request);
+        }
+        if (ex instanceof ArchiveAccessDeniedException) {
+            return error(FORBIDDEN, ex.getMessage(), request);
+        }
+        if (ex instanceof ImportTooLargeException) {
+            return error(PAYLOAD_TOO_LARGE, ex.getMessage(), request);
+        }
+        if (ex instanceof RejectedExecutionException) {
+            return error(SERVICE_UNAVAILABLE, "Server is busy, try again later", request);
+        }
+        return Mono.error(ex);
+    }
+
+    private Mono<ServerResponse> handleValidation(final RequestValidationException ex, final ServerRequest request) {
+        ValidationError validationError = new ValidationError(OffsetDateTime.now(CLOCK), request.path(), BAD_REQUEST.value(),
+                "Validation error", ex.getMessage());
+        ex.getViolations().forEach(v -> validationError.addError(v.getPropertyPath().toString(), v.getMessage()));
+        return ServerResponse.badRequest().bodyValue(validationError);
+    }
+
+    private Mono<ServerResponse> error(final HttpStatus status, final String message, final ServerRequest request) {
+        StandardError standardError = new StandardError(OffsetDateTime.now(CLOCK), request.path(), status.value(), status.getReasonPhrase(), message);
+        return ServerResponse.status(status).bodyValue(standardError);
+    }
+
+}
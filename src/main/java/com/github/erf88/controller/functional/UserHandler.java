@@ -0,0 +1,235 @@
+package com.github.erf88.controller.functional;
+
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.controller.ETags;
+import com.github.erf88.controller.exceptions.RequestValidationException;
+import com.github.erf88.entity.User;
+import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.model.request.UserLookupRequest;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.BatchItemResponse;
+import com.github.erf88.model.response.LookupItemResponse;
+import com.github.erf88.model.response.SearchItemResponse;
+import com.github.erf88.model.response.UserCountResponse;
+import com.github.erf88.model.response.UserResponse;
+import com.github.erf88.service.CountMode;
+import com.github.erf88.service.PageCursor;
+import com.github.erf88.service.SearchMode;
+import com.github.erf88.service.UserFields;
+import com.github.erf88.service.UserService;
+import com.github.erf88.validator.OnCreate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Set;
+
+import static com.github.erf88.controller.impl.UserControllerImpl.NEXT_CURSOR_HEADER;
+import static com.github.erf88.service.UserService.DEFAULT_PAGE_SIZE;
+import static com.github.erf88.service.UserService.pageSize;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = UserRouter.MODE_PROPERTY, havingValue = UserRouter.FUNCTIONAL)
+public class UserHandler {
+
+    private static final Class<?>[] CREATE_GROUPS = { Default.class, OnCreate.class };
+    private static final Class<?>[] DEFAULT_GROUPS = { Default.class };
+
+    private final UserService service;
+    private final UserMapper mapper;
+    private final Validator validator;
+    private final UserArchive archive;
+
+    public Mono<ServerResponse> save(final ServerRequest request) {
+        final boolean ifAbsent = booleanParam(request, "ifAbsent");
+        return body(request, UserRequest.class, CREATE_GROUPS)
+                .flatMap(body -> ifAbsent
+                        ? service.saveIfAbsent(body).map(created -> created ? CREATED : OK)
+                        : service.save(body).thenReturn(CREATED))
+                .flatMap(status -> ServerResponse.status(status).build());
+    }
+
+    public Mono<ServerResponse> saveAll(final ServerRequest request) {
+        return streamResponse(service.saveAll(request.bodyToFlux(UserRequest.class)), BatchItemResponse.class,
+                streamingType(request, APPLICATION_NDJSON));
+    }
+
+    public Mono<ServerResponse> findByEmail(final ServerRequest request) {
+        final String email = requiredParam(request, "email");
+        final UserFields projection = UserFields.parse(request.queryParam("fields").orElse(null));
+        return service.findByEmail(email).flatMap(user -> conditionalResponse(request, user, projection));
+    }
+
+    public Mono<ServerResponse> findById(final ServerRequest request) {
+        final UserFields projection = UserFields.parse(request.queryParam("fields").orElse(null));
+        return service.findById(request.pathVariable("id")).flatMap(user -> conditionalResponse(request, user, projection));
+    }
+
+    public Mono<ServerResponse> search(final ServerRequest request) {
+        final String query = requiredParam(request, "q");
+        final SearchMode mode = SearchMode.parse(request.queryParam("mode").orElse(null));
+        final UserFields projection = UserFields.parse(request.queryParam("fields").orElse(null));
+        final Flux<SearchItemResponse> results = service.search(query, mode, request.queryParam("after").orElse(null),
+                        intParam(request, "limit", DEFAULT_PAGE_SIZE), projection)
+                .map(user -> new SearchItemResponse(mode.cursor(user), projection.apply(mapper.toResponse(user))));
+        return streamResponse(results, SearchItemResponse.class, streamingType(request, APPLICATION_JSON));
+    }
+
+    public Mono<ServerResponse> count(final ServerRequest request) {
+        final CountMode mode = CountMode.parse(request.queryParam("mode").orElse(null));
+        return service.count(mode, request.queryParam("name").orElse(null))
+                .flatMap(count -> ServerResponse.ok()
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(new UserCountResponse(mode.name().toLowerCase(Locale.ROOT), count)));
+    }
+
+    public Mono<ServerResponse> export(final ServerRequest request) {
+        archive.authorize(request.headers().firstHeader(HttpHeaders.AUTHORIZATION));
+        return ServerResponse.ok()
+                .contentType(UserArchive.MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(UserArchive.FILENAME).build().toString())
+                .body(archive.write(service.export().map(mapper::toDocument), request.exchange().getResponse().bufferFactory()), DataBuffer.class);
+    }
+
+    public Mono<ServerResponse> importAll(final ServerRequest request) {
+        archive.authorize(request.headers().firstHeader(HttpHeaders.AUTHORIZATION));
+        final boolean gzip = UserArchive.isGzip(request.headers().contentType().orElse(null),
+                request.headers().firstHeader(HttpHeaders.CONTENT_ENCODING));
+        return service.importAll(archive.read(request.bodyToFlux(DataBuffer.class), gzip))
+                .flatMap(result -> ServerResponse.ok().contentType(APPLICATION_JSON).bodyValue(result));
+    }
+
+    public Mono<ServerResponse> lookup(final ServerRequest request) {
+        final UserFields projection = UserFields.parse(request.queryParam("fields").orElse(null));
+        final Flux<LookupItemResponse> items = body(request, UserLookupRequest.class, DEFAULT_GROUPS)
+                .flatMapMany(lookup -> service.findAllById(lookup.ids())
+                        .flatMapMany(users -> Flux.fromIterable(lookup.ids())
+                                .map(id -> {
+                                    final User user = users.get(id);
+                                    return user == null
+                                            ? new LookupItemResponse(id, NOT_FOUND.value(), null)
+                                            : new LookupItemResponse(id, OK.value(), projection.apply(mapper.toResponse(user)));
+                                })));
+        return streamResponse(items, LookupItemResponse.class, streamingType(request, APPLICATION_JSON));
+    }
+
+    public Mono<ServerResponse> findAll(final ServerRequest request) {
+        final int limit = intParam(request, "limit", DEFAULT_PAGE_SIZE);
+        return service.findPage(request.queryParam("after").orElse(null), limit, UserFields.parse(request.queryParam("fields").orElse(null)))
+                .map(mapper::toResponse)
+                .collectList()
+                .flatMap(page -> {
+                    ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(APPLICATION_JSON);
+                    if (page.size() == pageSize(limit)) {
+                        response.header(NEXT_CURSOR_HEADER, PageCursor.encode(page.get(page.size() - 1).id()));
+                    }
+                    return response.bodyValue(page);
+                });
+    }
+
+    public Mono<ServerResponse> stream(final ServerRequest request) {
+        final MediaType type = request.headers().accept().stream().anyMatch(APPLICATION_NDJSON::equalsTypeAndSubtype)
+                ? APPLICATION_NDJSON
+                : TEXT_EVENT_STREAM;
+        return streamResponse(service.findAll(UserFields.parse(request.queryParam("fields").orElse(null))).map(mapper::toResponse),
+                UserResponse.class, type);
+    }
+
+    public Mono<ServerResponse> update(final ServerRequest request) {
+        final String id = request.pathVariable("id");
+        return body(request, UserRequest.class, DEFAULT_GROUPS)
+                .flatMap(body -> service.update(id, body, ETags.version(request.headers().firstHeader(HttpHeaders.IF_MATCH), id)))
+                .flatMap(user -> withETag(ServerResponse.ok(), ETags.of(user, UserFields.ALL))
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(mapper.toResponse(user)));
+    }
+
+    public Mono<ServerResponse> delete(final ServerRequest request) {
+        return service.delete(request.pathVariable("id")).then(ServerResponse.ok().build());
+    }
+
+    private Mono<ServerResponse> conditionalResponse(final ServerRequest request, final User user, final UserFields projection) {
+        final String etag = ETags.of(user, projection);
+        final Mono<ServerResponse> response = Mono.defer(() -> withETag(ServerResponse.ok(), etag)
+                .contentType(APPLICATION_JSON)
+                .bodyValue(projection.apply(mapper.toResponse(user))));
+        return etag == null ? response : request.checkNotModified(etag).switchIfEmpty(response);
+    }
+
+    private <T> Mono<T> body(final ServerRequest request, final Class<T> type, final Class<?>[] groups) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .doOnNext(body -> {
+                    final Set<ConstraintViolation<T>> violations = validator.validate(body, groups);
+                    if (!violations.isEmpty()) {
+                        throw new RequestValidationException(violations);
+                    }
+                });
+    }
+
+    private static <T> Mono<ServerResponse> streamResponse(final Flux<T> body, final Class<T> type, final MediaType mediaType) {
+        return body.switchOnFirst((first, items) -> first.hasError()
+                        ? Mono.error(first.getThrowable())
+                        : ServerResponse.ok().contentType(mediaType).body(items, type), false)
+                .singleOrEmpty();
+    }
+
+    private static ServerResponse.BodyBuilder withETag(final ServerResponse.BodyBuilder response, final String etag) {
+        return etag == null ? response : response.eTag(etag);
+    }
+
+    private static MediaType streamingType(final ServerRequest request, final MediaType fallback) {
+        for (MediaType accepted : request.headers().accept()) {
+            if (APPLICATION_NDJSON.equalsTypeAndSubtype(accepted)) {
+                return APPLICATION_NDJSON;
+            }
+            if (APPLICATION_JSON.equalsTypeAndSubtype(accepted)) {
+                return APPLICATION_JSON;
+            }
+        }
+        return fallback;
+    }
+
+    private static String requiredParam(final ServerRequest request, final String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Required query parameter '%s' is not present.".formatted(name)));
+    }
+
+    private static boolean booleanParam(final ServerRequest request, final String name) {
+        final String value = request.queryParam(name).orElse("false");
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new ServerWebInputException("Invalid boolean for '%s': %s".formatted(name, value));
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private static int intParam(final ServerRequest request, final String name, final int defaultValue) {
+        final String value = request.queryParam(name).orElse(null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new ServerWebInputException("Invalid number for '%s': %s".formatted(name, value));
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.github.erf88.controller.functional;
+
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.controller.exceptions.RouterExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = UserRouter.MODE_PROPERTY, havingValue = UserRouter.FUNCTIONAL)
+public class UserRouter {
+
+    public static final String MODE_PROPERTY = "users.api.mode";
+    public static final String ANNOTATED = "annotated";
+    public static final String FUNCTIONAL = "functional";
+
+    @Bean
+    public RouterFunction<ServerResponse> userRoutes(final UserHandler handler, final RouterExceptionHandler errors) {
+        return RouterFunctions.route()
+                .path("/users", users -> users
+                        .POST("/batch", contentType(APPLICATION_JSON, APPLICATION_NDJSON), handler::saveAll)
+                        .POST("/lookup", handler::lookup)
+                        .GET("/by-email", handler::findByEmail)
+                        .GET("/search", handler::search)
+                        .GET("/count", handler::count)
+                        .GET("/export", handler::export)
+                        .POST("/import", contentType(APPLICATION_NDJSON, UserArchive.MEDIA_TYPE), handler::importAll)
+                        .GET("/{id}", handler::findById)
+                        .PATCH("/{id}", handler::update)
+                        .DELETE("/{id}", handler::delete)
+                        .GET("", accept(APPLICATION_JSON), handler::findAll)
+                        .GET("", accept(APPLICATION_NDJSON, TEXT_EVENT_STREAM), handler::stream)
+                        .POST("", handler::save))
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)))
+                .onError(Throwable.class, errors::handle)
+                .build();
+    }
+
+}
@@ -1,44 +1,151 @@
 package com.github.erf88.controller.impl;
 
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.controller.ETags;
 import com.github.erf88.controller.UserController;
+import com.github.erf88.controller.functional.UserRouter;
+import com.github.erf88.entity.User;
 import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.model.request.UserLookupRequest;
 import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.BatchItemResponse;
+import com.github.erf88.model.response.LookupItemResponse;
+import com.github.erf88.model.response.SearchItemResponse;
+import com.github.erf88.model.response.UserCountResponse;
+import com.github.erf88.model.response.UserImportResponse;
 import com.github.erf88.model.response.UserResponse;
+import com.github.erf88.service.CountMode;
+import com.github.erf88.service.PageCursor;
+import com.github.erf88.service.SearchMode;
+import com.github.erf88.service.UserFields;
 import com.github.erf88.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Locale;
+
+import static com.github.erf88.service.UserService.pageSize;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+
 @RestController
 @RequestMapping(value = "/users")
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = UserRouter.MODE_PROPERTY, havingValue = UserRouter.ANNOTATED, matchIfMissing = true)
 public class UserControllerImpl implements UserController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService service;
     private final UserMapper mapper;
+    private final UserArchive archive;
+
+    @Override
+    public Mono<ResponseEntity<Void>> save(UserRequest request, boolean ifAbsent) {
+        if (ifAbsent) {
+            return service.saveIfAbsent(request)
+                    .map(created -> ResponseEntity.status(created ? HttpStatus.CREATED : HttpStatus.OK).build());
+        }
+        return service.save(request).thenReturn(ResponseEntity.status(HttpStatus.CREATED).build());
+    }
+
+    @Override
+    public ResponseEntity<Flux<BatchItemResponse>> saveAll(Flux<UserRequest> requests) {
+        return ResponseEntity.ok().body(service.saveAll(requests));
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponse>> findByEmail(String email, String fields, ServerWebExchange exchange) {
+        final UserFields projection = UserFields.parse(fields);
+        return service.findByEmail(email).map(user -> conditionalResponse(user, projection, exchange));
+    }
 
     @Override
-    public ResponseEntity<Mono<Void>> save(UserRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(service.save(request).then());
+    public ResponseEntity<Flux<SearchItemResponse>> search(String q, String mode, String after, int limit, String fields) {
+        final SearchMode searchMode = SearchMode.parse(mode);
+        final UserFields projection = UserFields.parse(fields);
+        return ResponseEntity.ok().body(service.search(q, searchMode, after, limit, projection)
+                .map(user -> new SearchItemResponse(searchMode.cursor(user), projection.apply(mapper.toResponse(user)))));
     }
 
     @Override
-    public ResponseEntity<Mono<UserResponse>> findById(String id) {
-        return ResponseEntity.ok().body(service.findById(id).map(mapper::toResponse));
+    public ResponseEntity<Mono<UserCountResponse>> count(String mode, String name) {
+        final CountMode countMode = CountMode.parse(mode);
+        return ResponseEntity.ok().body(service.count(countMode, name)
+                .map(count -> new UserCountResponse(countMode.name().toLowerCase(Locale.ROOT), count)));
     }
 
     @Override
-    public ResponseEntity<Flux<UserResponse>> findAll() {
-        return ResponseEntity.ok().body(service.findAll().map(mapper::toResponse));
+    public ResponseEntity<Flux<DataBuffer>> export(String authorization, ServerWebExchange exchange) {
+        archive.authorize(authorization);
+        return ResponseEntity.ok()
+                .contentType(UserArchive.MEDIA_TYPE)
+                .header(CONTENT_DISPOSITION, ContentDisposition.attachment().filename(UserArchive.FILENAME).build().toString())
+                .body(archive.write(service.export().map(mapper::toDocument), exchange.getResponse().bufferFactory()));
     }
 
     @Override
-    public ResponseEntity<Mono<UserResponse>> update(String id, UserRequest request) {
-        return ResponseEntity.ok().body(service.update(id, request).map(mapper::toResponse));
+    public ResponseEntity<Mono<UserImportResponse>> importAll(String authorization, MediaType contentType, String contentEncoding,
+                                                              Flux<DataBuffer> body) {
+        archive.authorize(authorization);
+        return ResponseEntity.ok().body(service.importAll(archive.read(body, UserArchive.isGzip(contentType, contentEncoding))));
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponse>> findById(String id, String fields, ServerWebExchange exchange) {
+        final UserFields projection = UserFields.parse(fields);
+        return service.findById(id).map(user -> conditionalResponse(user, projection, exchange));
+    }
+
+    @Override
+    public ResponseEntity<Flux<LookupItemResponse>> lookup(UserLookupRequest request, String fields) {
+        final UserFields projection = UserFields.parse(fields);
+        return ResponseEntity.ok().body(service.findAllById(request.ids())
+                .flatMapMany(users -> Flux.fromIterable(request.ids())
+                        .map(id -> {
+                            final User user = users.get(id);
+                            return user == null
+                                    ? new LookupItemResponse(id, NOT_FOUND.value(), null)
+                                    : new LookupItemResponse(id, OK.value(), projection.apply(mapper.toResponse(user)));
+                        })));
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<UserResponse>>> findAll(String after, int limit, String fields) {
+        return service.findPage(after, limit, UserFields.parse(fields))
+                .map(mapper::toResponse)
+                .collectList()
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.size() == pageSize(limit)) {
+                        response.header(NEXT_CURSOR_HEADER, PageCursor.encode(page.get(page.size() - 1).id()));
+                    }
+                    return response.body(page);
+                });
+    }
+
+    @Override
+    public ResponseEntity<Flux<UserResponse>> stream(String fields) {
+        return ResponseEntity.ok().body(service.findAll(UserFields.parse(fields)).map(mapper::toResponse));
+    }
+
+    @Override
+    public Mono<ResponseEntity<UserResponse>> update(String id, UserRequest request, String ifMatch) {
+        return Mono.defer(() -> service.update(id, request, ETags.version(ifMatch, id)))
+                .map(user -> withETag(ResponseEntity.ok(), ETags.of(user, UserFields.ALL)).body(mapper.toResponse(user)));
     }
 
     @Override
@@ -46,4 +153,16 @@ public class UserControllerImpl implements UserController {
         return ResponseEntity.ok().body(service.delete(id).then());
     }
 
+    private ResponseEntity<UserResponse> conditionalResponse(final User user, final UserFields projection, final ServerWebExchange exchange) {
+        final String etag = ETags.of(user, projection);
+        if (etag != null && exchange.checkNotModified(etag)) {
+            return ResponseEntity.status(NOT_MODIFIED).eTag(etag).build();
+        }
+        return withETag(ResponseEntity.ok(), etag).body(projection.apply(mapper.toResponse(user)));
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(final ResponseEntity.BodyBuilder response, final String etag) {
+        return etag == null ? response : response.eTag(etag);
+    }
+
 }
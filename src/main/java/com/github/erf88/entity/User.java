@@ -3,20 +3,33 @@ package com.github.erf88.entity;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @Builder
 @Document
+@CompoundIndex(name = User.EMAIL_CI_INDEX, def = "{ 'email': 1 }", unique = true, collation = User.EMAIL_COLLATION)
+@CompoundIndex(name = User.NAME_INDEX, def = "{ 'name': 1, '_id': 1 }")
 public class User {
 
+    public static final String EMAIL_CI_INDEX = "email_ci";
+    public static final String NAME_INDEX = "name_id";
+    public static final String EMAIL_COLLATION = "{ 'locale': 'en', 'strength': 2 }";
+
     @Id
     private String id;
+
+    @TextIndexed
     private String name;
 
-    @Indexed(unique = true)
+    @TextIndexed
     private String email;
     private String password;
 
+    @Version
+    private Long version;
+
 }
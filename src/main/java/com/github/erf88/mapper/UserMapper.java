@@ -1,6 +1,7 @@
 package com.github.erf88.mapper;
 
 import com.github.erf88.entity.User;
+import com.github.erf88.model.UserDocument;
 import com.github.erf88.model.request.UserRequest;
 import com.github.erf88.model.response.UserResponse;
 import org.mapstruct.Mapper;
@@ -18,11 +19,19 @@ import static org.mapstruct.NullValuePropertyMappingStrategy.IGNORE;
 public interface UserMapper {
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "password", ignore = true)
     User toEntity(final UserRequest request);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "password", ignore = true)
     User toEntity(final UserRequest request, @MappingTarget final User entity);
 
     UserResponse toResponse(final User entity);
 
+    UserDocument toDocument(final User entity);
+
+    User toEntity(final UserDocument document);
+
 }
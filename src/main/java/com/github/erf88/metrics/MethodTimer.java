@@ -0,0 +1,76 @@
+package com.github.erf88.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MethodTimer {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String EMPTY = "EMPTY";
+    public static final String ERROR = "ERROR";
+    public static final String CANCELLED = "CANCELLED";
+
+    private static final String NONE = "none";
+
+    private final String name;
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public MethodTimer(final String name, final MeterRegistry registry) {
+        this.name = name;
+        this.registry = registry;
+        this.clock = registry.config().clock();
+    }
+
+    public <T> Mono<T> time(final String method, final Mono<T> source) {
+        return Mono.defer(() -> {
+            final long start = clock.monotonicTime();
+            final AtomicBoolean recorded = new AtomicBoolean();
+            return source
+                    .doOnSuccess(value -> record(recorded, method, value == null ? EMPTY : SUCCESS, null, start))
+                    .doOnError(ex -> record(recorded, method, ERROR, ex, start))
+                    .doOnCancel(() -> record(recorded, method, CANCELLED, null, start));
+        });
+    }
+
+    public <T> Flux<T> time(final String method, final Flux<T> source) {
+        return Flux.defer(() -> {
+            final long start = clock.monotonicTime();
+            final AtomicBoolean recorded = new AtomicBoolean();
+            return source
+                    .doOnComplete(() -> record(recorded, method, SUCCESS, null, start))
+                    .doOnError(ex -> record(recorded, method, ERROR, ex, start))
+                    .doOnCancel(() -> record(recorded, method, CANCELLED, null, start));
+        });
+    }
+
+    private void record(final AtomicBoolean recorded, final String method, final String outcome, final Throwable error, final long start) {
+        if (recorded.compareAndSet(false, true)) {
+            final Class<?> exception = error == null ? null : error.getClass();
+            timers.computeIfAbsent(new TimerKey(method, outcome, exception), this::register)
+                    .record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer register(final TimerKey key) {
+        return Timer.builder(name)
+                .tag("method", key.method())
+                .tag("outcome", key.outcome())
+                .tag("exception", key.exception() == null ? NONE : key.exception().getSimpleName())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record TimerKey(String method, String outcome, Class<?> exception) {
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.github.erf88.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.erf88.validator.TrimString;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserDocument(
+
+        String id,
+
+        @TrimString
+        @Size(min = 3, max = 50, message = "must be between 3 and 50 characters")
+        @NotBlank(message = "must not be null or empty")
+        String name,
+
+        @TrimString
+        @Email(message = "invalid email")
+        @NotBlank(message = "must not be null or empty")
+        String email,
+
+        String password,
+        Long version
+) {}
@@ -0,0 +1,18 @@
+package com.github.erf88.model.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserLookupRequest(
+
+        @NotEmpty(message = "must not be null or empty")
+        @Size(max = UserLookupRequest.MAX_IDS, message = "must contain at most " + UserLookupRequest.MAX_IDS + " ids")
+        List<@NotBlank(message = "must not be null or empty") String> ids
+) {
+
+    public static final int MAX_IDS = 500;
+
+}
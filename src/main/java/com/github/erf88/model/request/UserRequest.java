@@ -1,5 +1,6 @@
 package com.github.erf88.model.request;
 
+import com.github.erf88.validator.OnCreate;
 import com.github.erf88.validator.TrimString;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -9,16 +10,16 @@ public record UserRequest(
 
         @TrimString
         @Size(min = 3, max = 50, message = "must be between 3 and 50 characters")
-        @NotBlank(message = "must not be null or empty")
+        @NotBlank(message = "must not be null or empty", groups = OnCreate.class)
         String name,
 
         @TrimString
         @Email(message = "invalid email")
-        @NotBlank(message = "must not be null or empty")
+        @NotBlank(message = "must not be null or empty", groups = OnCreate.class)
         String email,
 
         @TrimString
         @Size(min = 3, max = 20, message = "must be between 3 and 20 characters")
-        @NotBlank(message = "must not be null or empty")
+        @NotBlank(message = "must not be null or empty", groups = OnCreate.class)
         String password
 ) {}
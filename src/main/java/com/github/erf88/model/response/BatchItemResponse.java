@@ -0,0 +1,8 @@
+package com.github.erf88.model.response;
+
+public record BatchItemResponse(
+        long index,
+        String id,
+        Integer status,
+        String message
+) {}
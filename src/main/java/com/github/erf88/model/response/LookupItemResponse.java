@@ -0,0 +1,10 @@
+package com.github.erf88.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LookupItemResponse(
+        String id,
+        Integer status,
+        UserResponse user
+) {}
@@ -0,0 +1,6 @@
+package com.github.erf88.model.response;
+
+public record SearchItemResponse(
+        String cursor,
+        UserResponse user
+) {}
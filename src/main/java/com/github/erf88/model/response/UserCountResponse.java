@@ -0,0 +1,6 @@
+package com.github.erf88.model.response;
+
+public record UserCountResponse(
+        String mode,
+        long count
+) {}
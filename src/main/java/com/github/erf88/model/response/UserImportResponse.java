@@ -0,0 +1,13 @@
+package com.github.erf88.model.response;
+
+import java.util.List;
+
+public record UserImportResponse(
+        long imported,
+        long failed,
+        List<BatchItemResponse> errors
+) {
+
+    public static final UserImportResponse EMPTY = new UserImportResponse(0, 0, List.of());
+
+}
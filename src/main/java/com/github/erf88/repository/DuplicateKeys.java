@@ -0,0 +1,45 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.service.exception.DuplicateUserException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+
+public final class DuplicateKeys {
+
+    private static final String ID_INDEX = "index: _id_ ";
+
+    private DuplicateKeys() {
+    }
+
+    public static boolean isDuplicateKey(final int code) {
+        return ErrorCategory.fromErrorCode(code) == ErrorCategory.DUPLICATE_KEY;
+    }
+
+    public static Throwable translate(final Throwable ex) {
+        if (ex.getCause() instanceof MongoWriteException write && isDuplicateKey(write.getCode())) {
+            return new DuplicateUserException(key(write.getError().getDetails(), write.getError().getMessage()));
+        }
+        if (ex.getCause() instanceof MongoCommandException command && isDuplicateKey(command.getErrorCode())) {
+            return new DuplicateUserException(key(command.getResponse(), command.getErrorMessage()));
+        }
+        return ex;
+    }
+
+    public static DuplicateUserException translate(final BulkWriteError error) {
+        return new DuplicateUserException(key(error.getDetails(), error.getMessage()));
+    }
+
+    // The driver keeps only errInfo on write errors, so keyPattern is usually missing there. Besides _id the only unique
+    // index is email_ci, so such a duplicate is on the e-mail unless the server names the _id index.
+    static String key(final BsonDocument details, final String message) {
+        final BsonDocument keyPattern = details.getDocument("keyPattern", null);
+        if (keyPattern != null && !keyPattern.isEmpty()) {
+            return keyPattern.getFirstKey();
+        }
+        return message != null && message.contains(ID_INDEX) ? DuplicateUserException.ID_KEY : DuplicateUserException.EMAIL_KEY;
+    }
+
+}
@@ -0,0 +1,373 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.entity.User;
+import com.github.erf88.metrics.MethodTimer;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.service.exception.DuplicateUserException;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Repository
+@Profile(InMemoryUserRepository.PROFILE)
+public class InMemoryUserRepository implements UserRepository {
+
+    public static final String PROFILE = "memory";
+
+    private static final String[] LOOKUP_FIELDS = { "name", "email", "version" };
+    private static final String[] ALL_FIELDS = { "name", "email", "password", "version" };
+    private static final Comparator<NameKey> NAME_ORDER = Comparator
+            .comparing(NameKey::name, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(NameKey::id);
+
+    private final ConcurrentHashMap<String, User> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> emails = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<String> ids = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<NameKey> names = new ConcurrentSkipListSet<>(NAME_ORDER);
+    private final MethodTimer timer;
+
+    public InMemoryUserRepository(final MeterRegistry registry) {
+        this.timer = new MethodTimer(METRIC_NAME, registry);
+    }
+
+    @Override
+    public Mono<User> save(final User user) {
+        return timer.time("save", Mono.fromCallable(() -> {
+            if (user.getId() == null) {
+                user.setId(new ObjectId().toHexString());
+            }
+            final User stored = user.getVersion() == null
+                    ? insert(copy(user, 0L))
+                    : replace(copy(user, user.getVersion() + 1), user.getVersion());
+            user.setVersion(stored.getVersion());
+            return user;
+        }));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfAbsent(final User user) {
+        return timer.time("insertIfAbsent", Mono.fromCallable(() -> {
+            if (user.getEmail() != null && emails.containsKey(fold(user.getEmail()))) {
+                return false;
+            }
+            try {
+                insert(User.builder()
+                        .id(new ObjectId().toHexString())
+                        .name(user.getName())
+                        .email(user.getEmail())
+                        .password(user.getPassword())
+                        .version(0L)
+                        .build());
+                return true;
+            } catch (DuplicateUserException ex) {
+                return false;
+            }
+        }));
+    }
+
+    @Override
+    public Mono<List<BulkWriteError>> insertAll(final List<User> users) {
+        return timer.time("insertAll", Mono.fromCallable(() -> {
+            final List<BulkWriteError> errors = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                final User user = users.get(i);
+                if (user.getId() == null) {
+                    user.setId(new ObjectId().toHexString());
+                }
+                if (user.getVersion() == null) {
+                    user.setVersion(0L);
+                }
+                try {
+                    insert(copy(user, user.getVersion()));
+                } catch (DuplicateUserException ex) {
+                    errors.add(new BulkWriteError(11000, "E11000 duplicate key error index: " + ex.getKey() + " dup key",
+                            new BsonDocument("keyPattern", new BsonDocument(ex.getKey(), new BsonInt32(1))), i));
+                }
+            }
+            return errors;
+        }));
+    }
+
+    @Override
+    public Mono<User> findById(final String id) {
+        return timer.time("findById", Mono.fromSupplier(() -> project(users.get(id), LOOKUP_FIELDS)));
+    }
+
+    @Override
+    public Mono<User> findByEmail(final String email) {
+        return timer.time("findByEmail", Mono.fromSupplier(() -> {
+            final String id = emails.get(fold(email));
+            return id == null ? null : project(users.get(id), LOOKUP_FIELDS);
+        }));
+    }
+
+    @Override
+    public Flux<User> findAllById(final Collection<String> ids) {
+        return timer.time("findAllById", Flux.fromIterable(new HashSet<>(ids))
+                .mapNotNull(id -> project(users.get(id), LOOKUP_FIELDS)));
+    }
+
+    @Override
+    public Flux<User> findAll(final String... fields) {
+        return timer.time("findAll", Flux.defer(() -> Flux.fromIterable(List.copyOf(users.values())))
+                .map(user -> project(user, fields)));
+    }
+
+    @Override
+    public Flux<User> findPage(final String after, final int limit, final String... fields) {
+        return timer.time("findPage", Flux.defer(() -> Flux.fromIterable(after == null ? ids : ids.tailSet(after, false)))
+                .mapNotNull(users::get)
+                .take(limit)
+                .map(user -> project(user, fields)));
+    }
+
+    @Override
+    public Flux<User> searchByNamePrefix(final String prefix, final String afterName, final String afterId, final int limit,
+                                         final String... fields) {
+        return timer.time("searchByNamePrefix", Flux.defer(() -> Flux.fromIterable(namePrefixRange(prefix, afterName, afterId)))
+                .takeWhile(key -> key.name() != null && key.name().startsWith(prefix))
+                .mapNotNull(key -> users.get(key.id()))
+                .filter(user -> user.getName() != null && user.getName().startsWith(prefix))
+                .take(limit)
+                .map(user -> project(user, withName(fields))));
+    }
+
+    @Override
+    public Flux<User> searchText(final String text, final String afterId, final int limit, final String... fields) {
+        return timer.time("searchText", Flux.defer(() -> {
+            final Set<String> terms = terms(text);
+            return Flux.fromIterable(afterId == null ? ids : ids.tailSet(afterId, false))
+                    .mapNotNull(users::get)
+                    .filter(user -> matches(user, terms))
+                    .take(limit)
+                    .map(user -> project(user, fields));
+        }));
+    }
+
+    @Override
+    public Mono<Long> estimatedCount() {
+        return timer.time("estimatedCount", Mono.fromSupplier(() -> (long) users.size()));
+    }
+
+    @Override
+    public Mono<Long> count(final String namePrefix) {
+        return timer.time("count", Mono.fromSupplier(() -> {
+            if (namePrefix == null) {
+                return (long) users.size();
+            }
+            long count = 0;
+            for (NameKey key : namePrefixRange(namePrefix, null, null)) {
+                if (key.name() == null || !key.name().startsWith(namePrefix)) {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }));
+    }
+
+    @Override
+    public Mono<User> patch(final String id, final UserRequest request, final Long version) {
+        return timer.time("patch", Mono.fromCallable(() -> {
+            final User[] result = new User[1];
+            users.computeIfPresent(id, (key, current) -> {
+                if (version != null && !version.equals(current.getVersion())) {
+                    return current;
+                }
+                if (request.name() == null && request.email() == null && request.password() == null) {
+                    result[0] = current;
+                    return current;
+                }
+                final User updated = User.builder()
+                        .id(id)
+                        .name(request.name() == null ? current.getName() : request.name())
+                        .email(request.email() == null ? current.getEmail() : request.email())
+                        .password(request.password() == null ? current.getPassword() : request.password())
+                        .version(current.getVersion() == null ? 1L : current.getVersion() + 1)
+                        .build();
+                reindex(current, updated);
+                result[0] = updated;
+                return updated;
+            });
+            return project(result[0], ALL_FIELDS);
+        }));
+    }
+
+    @Override
+    public Mono<User> findAndRemove(final String id) {
+        return timer.time("findAndRemove", Mono.fromCallable(() -> {
+            final User[] removed = new User[1];
+            users.computeIfPresent(id, (key, current) -> {
+                unindex(current);
+                removed[0] = current;
+                return null;
+            });
+            return project(removed[0], ALL_FIELDS);
+        }));
+    }
+
+    private User insert(final User record) {
+        users.compute(record.getId(), (id, current) -> {
+            if (current != null) {
+                throw new DuplicateUserException(DuplicateUserException.ID_KEY);
+            }
+            reserveEmail(record);
+            ids.add(id);
+            names.add(new NameKey(record.getName(), id));
+            return record;
+        });
+        return record;
+    }
+
+    private User replace(final User record, final long expectedVersion) {
+        users.compute(record.getId(), (id, current) -> {
+            if (current == null || current.getVersion() == null || current.getVersion() != expectedVersion) {
+                throw new OptimisticLockingFailureException("Cannot save entity %s with version %d to collection user; has it been modified meanwhile?"
+                        .formatted(id, expectedVersion));
+            }
+            reindex(current, record);
+            return record;
+        });
+        return record;
+    }
+
+    private void reindex(final User current, final User updated) {
+        if (!Objects.equals(emailKey(current), emailKey(updated))) {
+            reserveEmail(updated);
+            releaseEmail(current);
+        }
+        if (!Objects.equals(current.getName(), updated.getName())) {
+            names.add(new NameKey(updated.getName(), updated.getId()));
+            names.remove(new NameKey(current.getName(), current.getId()));
+        }
+    }
+
+    private void unindex(final User current) {
+        releaseEmail(current);
+        names.remove(new NameKey(current.getName(), current.getId()));
+        ids.remove(current.getId());
+    }
+
+    // Emails are unique case-insensitively, matching the strength-2 collation on the Mongo email index.
+    private void reserveEmail(final User record) {
+        if (record.getEmail() == null) {
+            return;
+        }
+        final String owner = emails.putIfAbsent(fold(record.getEmail()), record.getId());
+        if (owner != null && !owner.equals(record.getId())) {
+            throw new DuplicateUserException(DuplicateUserException.EMAIL_KEY);
+        }
+    }
+
+    private void releaseEmail(final User record) {
+        if (record.getEmail() != null) {
+            emails.remove(fold(record.getEmail()), record.getId());
+        }
+    }
+
+    private NavigableSet<NameKey> namePrefixRange(final String prefix, final String afterName, final String afterId) {
+        final NameKey lower = new NameKey(prefix, "");
+        if (afterId != null) {
+            final NameKey after = new NameKey(afterName, afterId);
+            if (NAME_ORDER.compare(after, lower) >= 0) {
+                return names.tailSet(after, false);
+            }
+        }
+        return names.tailSet(lower, true);
+    }
+
+    private static boolean matches(final User user, final Set<String> terms) {
+        final Set<String> tokens = terms(user.getName());
+        tokens.addAll(terms(user.getEmail()));
+        for (String term : terms) {
+            if (tokens.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> terms(final String text) {
+        final Set<String> terms = new HashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            final boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String emailKey(final User user) {
+        return user.getEmail() == null ? null : fold(user.getEmail());
+    }
+
+    private static String fold(final String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] withName(final String... fields) {
+        final String[] result = new String[fields.length + 1];
+        result[0] = "name";
+        System.arraycopy(fields, 0, result, 1, fields.length);
+        return result;
+    }
+
+    private static User copy(final User user, final Long version) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .version(version)
+                .build();
+    }
+
+    private static User project(final User user, final String... fields) {
+        if (user == null) {
+            return null;
+        }
+        final User projected = User.builder().id(user.getId()).build();
+        for (String field : fields) {
+            switch (field) {
+                case "name" -> projected.setName(user.getName());
+                case "email" -> projected.setEmail(user.getEmail());
+                case "password" -> projected.setPassword(user.getPassword());
+                case "version" -> projected.setVersion(user.getVersion());
+                default -> {
+                }
+            }
+        }
+        return projected;
+    }
+
+    private record NameKey(String name, String id) {
+    }
+
+}
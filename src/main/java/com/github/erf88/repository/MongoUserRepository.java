@@ -0,0 +1,216 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.entity.User;
+import com.github.erf88.metrics.MethodTimer;
+import com.github.erf88.model.request.UserRequest;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Profile("!" + InMemoryUserRepository.PROFILE)
+public class MongoUserRepository implements UserRepository {
+
+    private static final String[] LOOKUP_FIELDS = { "name", "email", "version" };
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MethodTimer timer;
+
+    public MongoUserRepository(final ReactiveMongoTemplate mongoTemplate, final MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.timer = new MethodTimer(METRIC_NAME, registry);
+    }
+
+    @Override
+    public Mono<User> save(final User user) {
+        return timer.time("save", mongoTemplate.save(user)
+                .onErrorMap(DuplicateKeyException.class, DuplicateKeys::translate));
+    }
+
+    @Override
+    public Mono<Boolean> insertIfAbsent(final User user) {
+        Query query = new Query(Criteria.where("email").is(user.getEmail())).collation(Collation.parse(User.EMAIL_COLLATION));
+        Update update = new Update()
+                .setOnInsert("name", user.getName())
+                .setOnInsert("password", user.getPassword())
+                .setOnInsert("version", 0L);
+        return timer.time("insertIfAbsent", mongoTemplate.upsert(query, update, User.class)
+                .map(result -> result.getUpsertedId() != null)
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false)));
+    }
+
+    @Override
+    public Mono<List<BulkWriteError>> insertAll(final List<User> users) {
+        return timer.time("insertAll", Mono.defer(() -> {
+                    users.forEach(user -> {
+                        if (user.getVersion() == null) {
+                            user.setVersion(0L);
+                        }
+                    });
+                    return mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class)
+                            .insert(users)
+                            .execute();
+                })
+                .map(result -> List.<BulkWriteError>of())
+                .onErrorResume(ex -> ex.getCause() instanceof MongoBulkWriteException, ex ->
+                        Mono.just(((MongoBulkWriteException) ex.getCause()).getWriteErrors())));
+    }
+
+    @Override
+    public Mono<User> findById(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include(LOOKUP_FIELDS);
+        return timer.time("findById", mongoTemplate.findOne(query, User.class));
+    }
+
+    @Override
+    public Mono<User> findByEmail(final String email) {
+        Query query = new Query(Criteria.where("email").is(email)).collation(Collation.parse(User.EMAIL_COLLATION));
+        query.fields().include(LOOKUP_FIELDS);
+        return timer.time("findByEmail", mongoTemplate.findOne(query, User.class));
+    }
+
+    @Override
+    public Flux<User> findAllById(final Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids)).cursorBatchSize(ids.size());
+        query.fields().include(LOOKUP_FIELDS);
+        return timer.time("findAllById", mongoTemplate.find(query, User.class));
+    }
+
+    @Override
+    public Flux<User> findAll(final String... fields) {
+        Query query = new Query().cursorBatchSize(STREAM_BATCH_SIZE);
+        query.fields().include("id").include(fields);
+        return timer.time("findAll", mongoTemplate.find(query, User.class)
+                .limitRate(STREAM_BATCH_SIZE));
+    }
+
+    @Override
+    public Flux<User> findPage(String after, int limit, final String... fields) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(limit)
+                .cursorBatchSize(limit);
+        if (after != null) {
+            query.addCriteria(Criteria.where("id").gt(new ObjectId(after)));
+        }
+        query.fields().include("id").include(fields);
+        return timer.time("findPage", mongoTemplate.find(query, User.class));
+    }
+
+    @Override
+    public Flux<User> searchByNamePrefix(final String prefix, final String afterName, final String afterId, final int limit,
+                                         final String... fields) {
+        return timer.time("searchByNamePrefix", mongoTemplate.find(prefixQuery(prefix, afterName, afterId, limit, fields), User.class));
+    }
+
+    @Override
+    public Flux<User> searchText(final String text, final String afterId, final int limit, final String... fields) {
+        return timer.time("searchText", mongoTemplate.find(textQuery(text, afterId, limit, fields), User.class));
+    }
+
+    @Override
+    public Mono<Long> estimatedCount() {
+        return timer.time("estimatedCount", mongoTemplate.estimatedCount(User.class));
+    }
+
+    @Override
+    public Mono<Long> count(final String namePrefix) {
+        Query query = new Query();
+        if (namePrefix != null) {
+            query.addCriteria(Criteria.where("name").regex(anchoredPrefix(namePrefix))).withHint(User.NAME_INDEX);
+        }
+        return timer.time("count", mongoTemplate.count(query, User.class));
+    }
+
+    static Query prefixQuery(final String prefix, final String afterName, final String afterId, final int limit, final String... fields) {
+        Criteria criteria = Criteria.where("name").regex(anchoredPrefix(prefix));
+        if (afterId != null) {
+            criteria.orOperator(
+                    Criteria.where("name").gt(afterName),
+                    Criteria.where("name").is(afterName).and("id").gt(new ObjectId(afterId)));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "name", "id"))
+                .withHint(User.NAME_INDEX)
+                .limit(limit)
+                .cursorBatchSize(limit);
+        query.fields().include("id", "name").include(fields);
+        return query;
+    }
+
+    static Query textQuery(final String text, final String afterId, final int limit, final String... fields) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(limit)
+                .cursorBatchSize(limit);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(new ObjectId(afterId)));
+        }
+        query.fields().include("id").include(fields);
+        return query;
+    }
+
+    private static String anchoredPrefix(final String prefix) {
+        final StringBuilder regex = new StringBuilder(prefix.length() + 8).append('^');
+        for (int i = 0; i < prefix.length(); i++) {
+            final char c = prefix.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != ' ') {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+
+    @Override
+    public Mono<User> patch(final String id, final UserRequest request, final Long version) {
+        Query query = new Query(Criteria.where("id").is(id));
+        if (version != null) {
+            query.addCriteria(Criteria.where("version").is(version));
+        }
+        Update update = new Update();
+        setIfNotNull(update, "name", request.name());
+        setIfNotNull(update, "email", request.email());
+        setIfNotNull(update, "password", request.password());
+        if (update.getUpdateObject().isEmpty()) {
+            return timer.time("patch", mongoTemplate.findOne(query, User.class));
+        }
+        update.inc("version", 1);
+        return timer.time("patch", mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), User.class)
+                .onErrorMap(DuplicateKeyException.class, DuplicateKeys::translate));
+    }
+
+    @Override
+    public Mono<User> findAndRemove(String id) {
+        Query query = new Query();
+        Criteria where = Criteria.where("id").is(id);
+        return timer.time("findAndRemove", mongoTemplate.findAndRemove(query.addCriteria(where), User.class));
+    }
+
+    private static void setIfNotNull(Update update, String key, Object value) {
+        if (value != null) {
+            update.set(key, value);
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.config.UserWriteBehindProperties;
+import com.github.erf88.entity.User;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static reactor.core.publisher.Sinks.EmitFailureHandler.busyLooping;
+
+@Component
+public class UserInsertBatcher implements DisposableBean {
+
+    public static final String METRIC_PREFIX = "users.write-behind";
+
+    private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
+
+    private final UserRepository repository;
+    private final Sinks.Many<PendingInsert> inserts;
+    private final Disposable subscription;
+    private final int capacity;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final DistributionSummary batchSizes;
+    private final Counter rejections;
+
+    public UserInsertBatcher(final UserRepository repository, final UserWriteBehindProperties properties, final MeterRegistry registry) {
+        this.repository = repository;
+        this.capacity = properties.capacity();
+        if (properties.enabled()) {
+            this.inserts = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingInsert>unboundedMultiproducer().get());
+            this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                    .description("Number of users written by one bulk insert")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.rejections = Counter.builder(METRIC_PREFIX + ".rejected")
+                    .description("Saves rejected because the write-behind buffer was full")
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + ".pending", pending, AtomicInteger::get)
+                    .description("Saves waiting to be flushed")
+                    .register(registry);
+            this.subscription = inserts.asFlux()
+                    .bufferTimeout(properties.maxBatchSize(), properties.maxWait(), true)
+                    .flatMap(this::flush, properties.concurrency())
+                    .subscribe();
+        } else {
+            this.inserts = null;
+            this.batchSizes = null;
+            this.rejections = null;
+            this.subscription = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return inserts != null;
+    }
+
+    public Mono<User> save(final User user) {
+        if (inserts == null) {
+            return repository.save(user);
+        }
+        return Mono.create(sink -> {
+            if (pending.incrementAndGet() > capacity) {
+                pending.decrementAndGet();
+                rejections.increment();
+                sink.error(new RejectedExecutionException("Write-behind buffer is full"));
+                return;
+            }
+            if (user.getId() == null) {
+                user.setId(new ObjectId().toHexString());
+            }
+            inserts.emitNext(new PendingInsert(user, sink), busyLooping(EMIT_TIMEOUT));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<Void> flush(final List<PendingInsert> batch) {
+        pending.addAndGet(-batch.size());
+        batchSizes.record(batch.size());
+        final List<User> users = new ArrayList<>(batch.size());
+        batch.forEach(insert -> users.add(insert.user()));
+        return repository.insertAll(users)
+                .doOnNext(errors -> {
+                    final BulkWriteError[] failures = new BulkWriteError[batch.size()];
+                    errors.forEach(error -> failures[error.getIndex()] = error);
+                    for (int i = 0; i < batch.size(); i++) {
+                        final PendingInsert insert = batch.get(i);
+                        if (failures[i] == null) {
+                            insert.sink().success(insert.user());
+                        } else {
+                            insert.sink().error(translate(failures[i]));
+                        }
+                    }
+                })
+                .doOnError(ex -> batch.forEach(insert -> insert.sink().error(ex)))
+                .onErrorComplete()
+                .then();
+    }
+
+    private static RuntimeException translate(final BulkWriteError error) {
+        if (DuplicateKeys.isDuplicateKey(error.getCode())) {
+            return DuplicateKeys.translate(error);
+        }
+        return new DataIntegrityViolationException(error.getMessage());
+    }
+
+    private record PendingInsert(User user, MonoSink<User> sink) {
+    }
+
+}
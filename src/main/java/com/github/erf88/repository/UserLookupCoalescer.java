@@ -0,0 +1,93 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.config.UserCoalescerProperties;
+import com.github.erf88.entity.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static reactor.core.publisher.Sinks.EmitFailureHandler.busyLooping;
+
+@Component
+public class UserLookupCoalescer implements DisposableBean {
+
+    public static final String BATCH_SIZE_METRIC = "users.coalescer.batch.size";
+
+    private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
+
+    private final UserRepository repository;
+    private final Sinks.Many<PendingLookup> lookups;
+    private final Disposable subscription;
+    private final DistributionSummary batchSizes;
+
+    public UserLookupCoalescer(final UserRepository repository, final UserCoalescerProperties properties, final MeterRegistry registry) {
+        this.repository = repository;
+        if (properties.enabled()) {
+            this.lookups = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingLookup>unboundedMultiproducer().get());
+            this.batchSizes = DistributionSummary.builder(BATCH_SIZE_METRIC)
+                    .description("Number of ids resolved by one coalesced query")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.subscription = lookups.asFlux()
+                    .bufferTimeout(properties.maxBatchSize(), properties.maxWait(), true)
+                    .flatMap(this::load, properties.concurrency())
+                    .subscribe();
+        } else {
+            this.lookups = null;
+            this.batchSizes = null;
+            this.subscription = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return lookups != null;
+    }
+
+    public Mono<User> findById(final String id) {
+        if (lookups == null) {
+            return repository.findById(id);
+        }
+        return Mono.create(sink -> lookups.emitNext(new PendingLookup(id, sink), busyLooping(EMIT_TIMEOUT)));
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<Void> load(final List<PendingLookup> batch) {
+        batchSizes.record(batch.size());
+        final Set<String> ids = new HashSet<>(batch.size());
+        batch.forEach(lookup -> ids.add(lookup.id()));
+        return repository.findAllById(ids)
+                .collectMap(User::getId)
+                .doOnNext(users -> batch.forEach(lookup -> {
+                    final User user = users.get(lookup.id());
+                    if (user == null) {
+                        lookup.sink().success();
+                    } else {
+                        lookup.sink().success(user);
+                    }
+                }))
+                .doOnError(ex -> batch.forEach(lookup -> lookup.sink().error(ex)))
+                .onErrorComplete()
+                .then();
+    }
+
+    private record PendingLookup(String id, MonoSink<User> sink) {
+    }
+
+}
@@ -1,36 +1,49 @@
 package com.github.erf88.repository;
 
 import com.github.erf88.entity.User;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.stereotype.Repository;
+import com.github.erf88.model.request.UserRequest;
+import com.mongodb.bulk.BulkWriteError;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-@Repository
-@RequiredArgsConstructor
-public class UserRepository {
+import java.util.Collection;
+import java.util.List;
 
-    private final ReactiveMongoTemplate mongoTemplate;
+public interface UserRepository {
 
-    public Mono<User> save(final User user) {
-        return mongoTemplate.save(user);
-    }
+    String METRIC_NAME = "users.repository";
+    int STREAM_BATCH_SIZE = 256;
 
-    public Mono<User> findById(String id) {
-        return mongoTemplate.findById(id, User.class);
-    }
+    Mono<User> save(User user);
 
-    public Flux<User> findAll() {
-        return mongoTemplate.findAll(User.class);
-    }
+    Mono<Boolean> insertIfAbsent(User user);
+
+    Mono<List<BulkWriteError>> insertAll(List<User> users);
+
+    Mono<User> findById(String id);
+
+    Mono<User> findByEmail(String email);
+
+    Flux<User> findAllById(Collection<String> ids);
+
+    Flux<User> findAll(String... fields);
 
-    public Mono<User> findAndRemove(String id) {
-        Query query = new Query();
-        Criteria where = Criteria.where("id").is(id);
-        return mongoTemplate.findAndRemove(query.addCriteria(where), User.class);
+    Flux<User> findPage(String after, int limit, String... fields);
+
+    Flux<User> searchByNamePrefix(String prefix, String afterName, String afterId, int limit, String... fields);
+
+    Flux<User> searchText(String text, String afterId, int limit, String... fields);
+
+    Mono<Long> estimatedCount();
+
+    Mono<Long> count(String namePrefix);
+
+    default Mono<User> patch(final String id, final UserRequest request) {
+        return patch(id, request, null);
     }
 
+    Mono<User> patch(String id, UserRequest request, Long version);
+
+    Mono<User> findAndRemove(String id);
+
 }
@@ -0,0 +1,69 @@
+package com.github.erf88.security;
+
+import com.github.erf88.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    public static final String EXECUTOR_NAME = "password-hasher";
+    public static final String SCHEDULER_METRICS_PREFIX = "reactor.scheduler";
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final Timer hashTimer;
+
+    public PasswordHasher(final PasswordHashingProperties properties, final MeterRegistry registry) {
+        final int threads = properties.threads() > 0 ? properties.threads() : Runtime.getRuntime().availableProcessors();
+        this.encoder = new BCryptPasswordEncoder(properties.strength());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()), threadFactory());
+        this.scheduler = Micrometer.timedScheduler(Schedulers.fromExecutorService(executor, EXECUTOR_NAME), registry,
+                SCHEDULER_METRICS_PREFIX, Tags.of("name", EXECUTOR_NAME));
+        this.hashTimer = Timer.builder("users.password.hash")
+                .description("Time spent hashing a password")
+                .publishPercentileHistogram()
+                .register(registry);
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+    }
+
+    public Mono<String> hash(final String rawPassword) {
+        if (rawPassword == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> hashTimer.record(() -> encoder.encode(rawPassword)))
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private static ThreadFactory threadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, EXECUTOR_NAME + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.github.erf88.service;
+
+import com.github.erf88.service.exception.InvalidSearchException;
+
+public enum CountMode {
+
+    ESTIMATED,
+    EXACT;
+
+    public static CountMode parse(final String mode) {
+        if (mode == null || mode.isBlank()) {
+            return ESTIMATED;
+        }
+        return switch (mode.trim()) {
+            case "estimated" -> ESTIMATED;
+            case "exact" -> EXACT;
+            default -> throw new InvalidSearchException("Invalid count mode: %s".formatted(mode.trim()));
+        };
+    }
+
+}
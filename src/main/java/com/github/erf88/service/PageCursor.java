@@ -0,0 +1,28 @@
+package com.github.erf88.service;
+
+import com.github.erf88.service.exception.InvalidCursorException;
+import org.bson.types.ObjectId;
+
+import java.util.Base64;
+
+public final class PageCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageCursor() {
+    }
+
+    public static String encode(final String id) {
+        return ENCODER.encodeToString(new ObjectId(id).toByteArray());
+    }
+
+    public static String decode(final String cursor) {
+        try {
+            return new ObjectId(DECODER.decode(cursor)).toHexString();
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: %s".formatted(cursor));
+        }
+    }
+
+}
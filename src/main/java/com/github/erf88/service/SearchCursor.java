@@ -0,0 +1,37 @@
+package com.github.erf88.service;
+
+import com.github.erf88.service.exception.InvalidCursorException;
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record SearchCursor(String id, String key) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final int ID_LENGTH = 12;
+
+    public String encode() {
+        final byte[] keyBytes = key == null ? new byte[0] : key.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(ByteBuffer.allocate(ID_LENGTH + keyBytes.length)
+                .put(new ObjectId(id).toByteArray())
+                .put(keyBytes)
+                .array());
+    }
+
+    public static SearchCursor decode(final String cursor) {
+        try {
+            final byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length < ID_LENGTH) {
+                throw new IllegalArgumentException("cursor too short");
+            }
+            final String id = new ObjectId(ByteBuffer.wrap(bytes, 0, ID_LENGTH)).toHexString();
+            return new SearchCursor(id, new String(bytes, ID_LENGTH, bytes.length - ID_LENGTH, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: %s".formatted(cursor));
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.github.erf88.service;
+
+import com.github.erf88.entity.User;
+import com.github.erf88.service.exception.InvalidSearchException;
+
+public enum SearchMode {
+
+    PREFIX,
+    TEXT;
+
+    public static SearchMode parse(final String mode) {
+        if (mode == null || mode.isBlank()) {
+            return PREFIX;
+        }
+        return switch (mode.trim()) {
+            case "prefix" -> PREFIX;
+            case "text" -> TEXT;
+            default -> throw new InvalidSearchException("Invalid search mode: %s".formatted(mode.trim()));
+        };
+    }
+
+    public String cursor(final User user) {
+        return new SearchCursor(user.getId(), this == PREFIX ? user.getName() : null).encode();
+    }
+
+}
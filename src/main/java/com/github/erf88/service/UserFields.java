@@ -0,0 +1,51 @@
+package com.github.erf88.service;
+
+import com.github.erf88.model.response.UserResponse;
+import com.github.erf88.service.exception.InvalidFieldsException;
+
+public record UserFields(boolean name, boolean email) {
+
+    public static final String SUMMARY_VIEW = "summary";
+    public static final UserFields ALL = new UserFields(true, true);
+    public static final UserFields SUMMARY = new UserFields(true, false);
+
+    private static final String[] ALL_FIELDS = { "name", "email" };
+    private static final String[] NAME_FIELDS = { "name" };
+    private static final String[] EMAIL_FIELDS = { "email" };
+    private static final String[] NO_FIELDS = {};
+
+    public static UserFields parse(final String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        if (SUMMARY_VIEW.equals(fields.trim())) {
+            return SUMMARY;
+        }
+        boolean name = false;
+        boolean email = false;
+        for (String field : fields.split(",")) {
+            switch (field.trim()) {
+                case "id" -> { }
+                case "name" -> name = true;
+                case "email" -> email = true;
+                default -> throw new InvalidFieldsException("Invalid field: %s".formatted(field.trim()));
+            }
+        }
+        return new UserFields(name, email);
+    }
+
+    public String[] include() {
+        if (name && email) {
+            return ALL_FIELDS;
+        }
+        return name ? NAME_FIELDS : email ? EMAIL_FIELDS : NO_FIELDS;
+    }
+
+    public UserResponse apply(final UserResponse response) {
+        if (name && email) {
+            return response;
+        }
+        return new UserResponse(response.id(), name ? response.name() : null, email ? response.email() : null);
+    }
+
+}
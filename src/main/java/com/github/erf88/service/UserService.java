@@ -1,47 +1,305 @@
 package com.github.erf88.service;
 
+import com.github.erf88.cache.UserCache;
+import com.github.erf88.cache.UserCountCache;
 import com.github.erf88.entity.User;
 import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.metrics.MethodTimer;
+import com.github.erf88.model.UserDocument;
 import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.BatchItemResponse;
+import com.github.erf88.model.response.UserImportResponse;
+import com.github.erf88.repository.DuplicateKeys;
+import com.github.erf88.repository.UserInsertBatcher;
+import com.github.erf88.repository.UserLookupCoalescer;
 import com.github.erf88.repository.UserRepository;
+import com.github.erf88.security.PasswordHasher;
+import com.github.erf88.service.exception.InvalidSearchException;
 import com.github.erf88.service.exception.ObjectNotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.github.erf88.service.exception.PreconditionFailedException;
+import com.github.erf88.validator.OnCreate;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.CREATED;
 
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
+    public static final String METRIC_NAME = "users.service";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int BATCH_CHUNK_SIZE = 500;
+    public static final int MAX_SEARCH_LENGTH = 100;
+    public static final int IMPORT_CHUNK_SIZE = 1000;
+    public static final int MAX_IMPORT_ERRORS = 1000;
+
+    private static final int HASH_CONCURRENCY = 16;
+    private static final String[] EXPORT_FIELDS = { "name", "email", "password", "version" };
+    private static final String USER_TYPE = User.class.getSimpleName();
+
     private final UserRepository repository;
+    private final UserLookupCoalescer coalescer;
+    private final UserInsertBatcher batcher;
+    private final UserCache cache;
+    private final UserCountCache countCache;
+    private final PasswordHasher passwordHasher;
     private final UserMapper mapper;
+    private final Validator validator;
+    private final MethodTimer timer;
+
+    public UserService(final UserRepository repository, final UserLookupCoalescer coalescer, final UserInsertBatcher batcher,
+                       final UserCache cache, final UserCountCache countCache, final PasswordHasher passwordHasher,
+                       final UserMapper mapper, final Validator validator, final MeterRegistry registry) {
+        this.repository = repository;
+        this.coalescer = coalescer;
+        this.batcher = batcher;
+        this.cache = cache;
+        this.countCache = countCache;
+        this.passwordHasher = passwordHasher;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.timer = new MethodTimer(METRIC_NAME, registry);
+    }
 
     public Mono<User> save(final UserRequest request) {
-        return repository.save(mapper.toEntity(request));
+        return timer.time("save", passwordHasher.hash(request.password())
+                .map(hash -> {
+                    final User user = mapper.toEntity(request);
+                    user.setPassword(hash);
+                    return user;
+                })
+                .flatMap(batcher::save)
+                .doOnNext(user -> cache.invalidate(user.getId())));
+    }
+
+    public Mono<Boolean> saveIfAbsent(final UserRequest request) {
+        return timer.time("saveIfAbsent", passwordHasher.hash(request.password())
+                .map(hash -> {
+                    final User user = mapper.toEntity(request);
+                    user.setPassword(hash);
+                    return user;
+                })
+                .flatMap(repository::insertIfAbsent));
+    }
+
+    public Flux<BatchItemResponse> saveAll(final Flux<UserRequest> requests) {
+        return requests.index()
+                .buffer(BATCH_CHUNK_SIZE)
+                .concatMap(chunk -> timer.time("saveAll", saveChunk(chunk)));
     }
 
     public Mono<User> findById(String id) {
-        return handleNotFound(repository.findById(id), id);
+        return timer.time("findById", handleNotFound(cache.get(id, coalescer::findById), id));
+    }
+
+    public Mono<User> findByEmail(final String email) {
+        return timer.time("findByEmail", Mono.justOrEmpty(cache.getIdByEmail(email))
+                .flatMap(id -> cache.get(id, coalescer::findById))
+                .filter(user -> email.equalsIgnoreCase(user.getEmail()))
+                .switchIfEmpty(Mono.defer(() -> repository.findByEmail(email)
+                        .doOnNext(user -> cache.putIdByEmail(email, user.getId()))))
+                .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException("Object not found. Email: " + email + ", Type: " + USER_TYPE))));
+    }
+
+    public Mono<Map<String, User>> findAllById(final Collection<String> ids) {
+        return timer.time("findAllById", cache.getAll(new LinkedHashSet<>(ids), repository::findAllById));
+    }
+
+    public Flux<User> findAll(final UserFields fields) {
+        return timer.time("findAll", repository.findAll(fields.include()));
+    }
+
+    public Flux<User> export() {
+        return timer.time("export", repository.findAll(EXPORT_FIELDS));
+    }
+
+    public Mono<UserImportResponse> importAll(final Flux<UserDocument> documents) {
+        return timer.time("importAll", documents.index()
+                .buffer(IMPORT_CHUNK_SIZE)
+                .concatMap(this::restoreChunk, 1)
+                .collect(ImportTally::new, ImportTally::add)
+                .map(ImportTally::toResponse)
+                .doFinally(signal -> countCache.invalidateAll()));
+    }
+
+    public Flux<User> findPage(final String cursor, final int limit, final UserFields fields) {
+        return timer.time("findPage", Flux.defer(() -> repository.findPage(cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor),
+                pageSize(limit), fields.include())));
+    }
+
+    public Flux<User> search(final String query, final SearchMode mode, final String cursor, final int limit, final UserFields fields) {
+        return timer.time("search", Flux.defer(() -> {
+            if (query == null || query.isBlank()) {
+                return Flux.error(new InvalidSearchException("Search query must not be blank"));
+            }
+            if (query.length() > MAX_SEARCH_LENGTH) {
+                return Flux.error(new InvalidSearchException("Search query must have at most %d characters".formatted(MAX_SEARCH_LENGTH)));
+            }
+            final SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+            final String afterId = after == null ? null : after.id();
+            return switch (mode) {
+                case PREFIX -> repository.searchByNamePrefix(query, after == null ? null : after.key(), afterId, pageSize(limit), fields.include());
+                case TEXT -> repository.searchText(query, afterId, pageSize(limit), fields.include());
+            };
+        }));
     }
 
-    public Flux<User> findAll() {
-        return repository.findAll();
+    public Mono<Long> count(final CountMode mode, final String namePrefix) {
+        final String filter = namePrefix == null || namePrefix.isBlank() ? null : namePrefix;
+        if (mode == CountMode.ESTIMATED && filter != null) {
+            return Mono.error(new InvalidSearchException("Estimated count does not support filters, use mode=exact"));
+        }
+        if (filter != null && filter.length() > MAX_SEARCH_LENGTH) {
+            return Mono.error(new InvalidSearchException("Search query must have at most %d characters".formatted(MAX_SEARCH_LENGTH)));
+        }
+        return timer.time("count", switch (mode) {
+            case ESTIMATED -> countCache.get("estimated", repository::estimatedCount);
+            case EXACT -> countCache.get(filter == null ? "exact" : "exact:" + filter, () -> repository.count(filter));
+        });
+    }
+
+    public static int pageSize(final int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
     public Mono<User> update(final String id, final UserRequest request) {
-        return findById(id)
-                .map(entity -> mapper.toEntity(request, entity))
-                .flatMap(repository::save);
+        return update(id, request, null);
+    }
+
+    public Mono<User> update(final String id, final UserRequest request, final Long expectedVersion) {
+        return timer.time("update", passwordHasher.hash(request.password())
+                .map(hash -> new UserRequest(request.name(), request.email(), hash))
+                .defaultIfEmpty(request)
+                .flatMap(changes -> repository.patch(id, changes, expectedVersion))
+                .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                        ? Mono.empty()
+                        : repository.findById(id).flatMap(current -> Mono.error(() -> new PreconditionFailedException(
+                                "Version mismatch. Id: %s, expected: %d, current: %d".formatted(id, expectedVersion, current.getVersion()))))))
+                .transform(mono -> handleNotFound(mono, id))
+                .doOnNext(user -> cache.invalidate(id)));
     }
 
     public Mono<User> delete(final String id) {
-        return handleNotFound(repository.findAndRemove(id), id);
+        return timer.time("delete", handleNotFound(repository.findAndRemove(id), id)
+                .doOnNext(user -> cache.invalidate(id)));
+    }
+
+    private Flux<BatchItemResponse> saveChunk(final List<Tuple2<Long, UserRequest>> chunk) {
+        final BatchItemResponse[] results = new BatchItemResponse[chunk.size()];
+        final List<Integer> positions = new ArrayList<>(chunk.size());
+        final List<User> users = new ArrayList<>(chunk.size());
+        final List<String> passwords = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            final long index = chunk.get(i).getT1();
+            final UserRequest request = chunk.get(i).getT2();
+            final Set<ConstraintViolation<UserRequest>> violations = validator.validate(request, Default.class, OnCreate.class);
+            if (violations.isEmpty()) {
+                final User user = mapper.toEntity(request);
+                user.setId(new ObjectId().toHexString());
+                positions.add(i);
+                users.add(user);
+                passwords.add(request.password());
+                results[i] = new BatchItemResponse(index, user.getId(), CREATED.value(), null);
+            } else {
+                results[i] = new BatchItemResponse(index, null, BAD_REQUEST.value(), violationMessage(violations));
+            }
+        }
+        if (users.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+        return Flux.range(0, users.size())
+                .flatMap(i -> passwordHasher.hash(passwords.get(i)).doOnNext(users.get(i)::setPassword), HASH_CONCURRENCY)
+                .thenMany(insertChunk(users, positions, results));
+    }
+
+    // Archived documents already carry their id, version and password hash, so they are written as they are.
+    private Flux<BatchItemResponse> restoreChunk(final List<Tuple2<Long, UserDocument>> chunk) {
+        final BatchItemResponse[] results = new BatchItemResponse[chunk.size()];
+        final List<Integer> positions = new ArrayList<>(chunk.size());
+        final List<User> users = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            final long index = chunk.get(i).getT1();
+            final UserDocument document = chunk.get(i).getT2();
+            final Set<ConstraintViolation<UserDocument>> violations = validator.validate(document);
+            if (violations.isEmpty()) {
+                final User user = mapper.toEntity(document);
+                if (user.getId() == null) {
+                    user.setId(new ObjectId().toHexString());
+                }
+                positions.add(i);
+                users.add(user);
+                results[i] = new BatchItemResponse(index, user.getId(), CREATED.value(), null);
+            } else {
+                results[i] = new BatchItemResponse(index, null, BAD_REQUEST.value(), violationMessage(violations));
+            }
+        }
+        return users.isEmpty() ? Flux.fromArray(results) : insertChunk(users, positions, results);
+    }
+
+    private Flux<BatchItemResponse> insertChunk(final List<User> users, final List<Integer> positions, final BatchItemResponse[] results) {
+        return repository.insertAll(users)
+                .flatMapMany(errors -> {
+                    errors.forEach(error -> {
+                        final int position = positions.get(error.getIndex());
+                        results[position] = DuplicateKeys.isDuplicateKey(error.getCode())
+                                ? new BatchItemResponse(results[position].index(), null, CONFLICT.value(), DuplicateKeys.translate(error).getMessage())
+                                : new BatchItemResponse(results[position].index(), null, BAD_REQUEST.value(), error.getMessage());
+                    });
+                    return Flux.fromArray(results);
+                });
+    }
+
+    private static String violationMessage(final Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Only failed rows are kept, up to MAX_IMPORT_ERRORS, so a large import does not buffer one result per document.
+    private static final class ImportTally {
+
+        private final List<BatchItemResponse> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private void add(final BatchItemResponse item) {
+            if (item.status() == CREATED.value()) {
+                imported++;
+                return;
+            }
+            failed++;
+            if (errors.size() < MAX_IMPORT_ERRORS) {
+                errors.add(item);
+            }
+        }
+
+        private UserImportResponse toResponse() {
+            return new UserImportResponse(imported, failed, List.copyOf(errors));
+        }
+
     }
 
     private <T> Mono<T> handleNotFound(Mono<T> mono, String id) {
-        return mono.switchIfEmpty(Mono.error(new ObjectNotFoundException("Object not found. Id: %s, Type: %s"
-                .formatted(id, User.class.getSimpleName()))));
+        return mono.switchIfEmpty(Mono.error(() -> new ObjectNotFoundException("Object not found. Id: " + id + ", Type: " + USER_TYPE)));
     }
 
 }
@@ -0,0 +1,9 @@
+package com.github.erf88.service.exception;
+
+public class ArchiveAccessDeniedException extends RuntimeException {
+
+    public ArchiveAccessDeniedException(String message) {
+        super(message, null, false, false);
+    }
+
+}
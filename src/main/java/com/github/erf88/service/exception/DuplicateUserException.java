@@ -0,0 +1,24 @@
+package com.github.erf88.service.exception;
+
+import lombok.Getter;
+import org.springframework.dao.DuplicateKeyException;
+
+@Getter
+public class DuplicateUserException extends DuplicateKeyException {
+
+    public static final String EMAIL_KEY = "email";
+    public static final String ID_KEY = "_id";
+
+    private final String key;
+
+    public DuplicateUserException(String key) {
+        super(EMAIL_KEY.equals(key) ? "E-mail already registered" : "Duplicate key exception");
+        this.key = key;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
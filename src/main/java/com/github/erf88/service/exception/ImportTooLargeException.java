@@ -0,0 +1,9 @@
+package com.github.erf88.service.exception;
+
+public class ImportTooLargeException extends RuntimeException {
+
+    public ImportTooLargeException(String message) {
+        super(message, null, false, false);
+    }
+
+}
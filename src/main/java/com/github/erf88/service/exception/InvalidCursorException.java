@@ -0,0 +1,9 @@
+package com.github.erf88.service.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message, null, false, false);
+    }
+
+}
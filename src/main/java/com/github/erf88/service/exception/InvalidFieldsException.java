@@ -0,0 +1,9 @@
+package com.github.erf88.service.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message, null, false, false);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.github.erf88.service.exception;
+
+public class InvalidSearchException extends RuntimeException {
+
+    public InvalidSearchException(String message) {
+        super(message, null, false, false);
+    }
+
+}
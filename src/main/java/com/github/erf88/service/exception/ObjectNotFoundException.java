@@ -3,7 +3,7 @@ package com.github.erf88.service.exception;
 public class ObjectNotFoundException extends RuntimeException {
 
     public ObjectNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
 }
@@ -0,0 +1,9 @@
+package com.github.erf88.service.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+
+}
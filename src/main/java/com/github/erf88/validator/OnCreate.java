@@ -0,0 +1,4 @@
+package com.github.erf88.validator;
+
+public interface OnCreate {
+}
@@ -15,6 +15,8 @@ public @interface TrimString {
 
     String message() default "field cannot have black spaces at the beginning or at end";
 
+    boolean unicode() default false;
+
     Class<?>[] groups() default {};
 
     Class<? extends Payload>[] payload() default {};
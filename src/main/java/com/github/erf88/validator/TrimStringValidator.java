@@ -5,9 +5,26 @@ import jakarta.validation.ConstraintValidatorContext;
 
 public class TrimStringValidator implements ConstraintValidator<TrimString, String> {
 
+    private boolean unicode;
+
+    @Override
+    public void initialize(TrimString constraintAnnotation) {
+        this.unicode = constraintAnnotation.unicode();
+    }
+
     @Override
     public boolean isValid(String value, ConstraintValidatorContext constraintValidatorContext) {
-        return value == null || value.trim().length() == value.length();
+        if (value == null || value.isEmpty()) {
+            return true;
+        }
+        return !isBlank(value.charAt(0)) && !isBlank(value.charAt(value.length() - 1));
+    }
+
+    private boolean isBlank(char c) {
+        if (unicode) {
+            return Character.isWhitespace(c) || Character.isSpaceChar(c);
+        }
+        return c <= ' ';
     }
 
 }
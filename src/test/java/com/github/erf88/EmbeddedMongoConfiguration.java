@@ -0,0 +1,34 @@
+package com.github.erf88;
+
+import com.mongodb.ConnectionString;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+
+import java.net.InetSocketAddress;
+
+@Profile("embedded")
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedMongoConfiguration {
+
+    public static final String DATABASE = "webflux-api";
+
+    @Bean(destroyMethod = "shutdownNow")
+    MongoServer mongoServer() {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        server.bind("localhost", 0);
+        return server;
+    }
+
+    @Bean
+    MongoConnectionDetails mongoConnectionDetails(MongoServer mongoServer) {
+        InetSocketAddress address = mongoServer.getLocalAddress();
+        ConnectionString connectionString = new ConnectionString("mongodb://%s:%d/%s"
+                .formatted(address.getHostString(), address.getPort(), DATABASE));
+        return () -> connectionString;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.github.erf88.cache;
+
+import com.github.erf88.config.UserCacheProperties;
+import com.github.erf88.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testConcurrentMissesAreCoalesced() {
+        final UserCache cache = new UserCache(new UserCacheProperties(true, 100, Duration.ofMinutes(1)), registry);
+        final Sinks.One<User> pending = Sinks.one();
+        final AtomicInteger loads = new AtomicInteger();
+
+        Mono<User> first = cache.get("123", id -> {
+            loads.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<User> second = cache.get("123", id -> {
+            loads.incrementAndGet();
+            return pending.asMono();
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> pending.tryEmitValue(User.builder().id("123").build()))
+                .expectNextMatches(users -> users.getT1() == users.getT2())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEmptyResultsAreNotCached() {
+        final UserCache cache = new UserCache(new UserCacheProperties(true, 100, Duration.ofMinutes(1)), registry);
+        final AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(cache.get("123", id -> Mono.<User>empty().doOnSubscribe(s -> loads.incrementAndGet())))
+                    .expectComplete()
+                    .verify();
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        final UserCache cache = new UserCache(new UserCacheProperties(true, 100, Duration.ofMinutes(1)), registry);
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache.get("123", id -> Mono.fromSupplier(() -> User.builder().id(id).name("v" + loads.incrementAndGet()).build())).block();
+        cache.invalidate("123");
+        User reloaded = cache.get("123", id -> Mono.fromSupplier(() -> User.builder().id(id).name("v" + loads.incrementAndGet()).build())).block();
+
+        assertEquals("v2", reloaded.getName());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", UserCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testGetAllLoadsOnlyMissingIds() {
+        final UserCache cache = new UserCache(new UserCacheProperties(true, 100, Duration.ofMinutes(1)), registry);
+        final List<Set<String>> loads = new CopyOnWriteArrayList<>();
+        cache.get("1", id -> Mono.just(User.builder().id(id).build())).block();
+
+        Map<String, User> users = cache.getAll(new LinkedHashSet<>(List.of("1", "2", "3")), ids -> {
+            loads.add(ids);
+            return Flux.fromIterable(ids).filter(id -> !id.equals("3")).map(id -> User.builder().id(id).build());
+        }).block();
+
+        assertEquals(Set.of("1", "2"), users.keySet());
+        assertEquals(List.of(Set.of("2", "3")), loads);
+    }
+
+    @Test
+    void testDisabledCacheAlwaysLoads() {
+        final UserCache cache = new UserCache(new UserCacheProperties(false, 100, Duration.ofMinutes(1)), registry);
+        final AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get("123", id -> Mono.fromSupplier(() -> User.builder().id(id).build()).doOnSubscribe(s -> loads.incrementAndGet())).block();
+        }
+
+        assertFalse(cache.isEnabled());
+        assertEquals(3, loads.get());
+        assertTrue(registry.find("cache.gets").meters().isEmpty());
+    }
+
+}
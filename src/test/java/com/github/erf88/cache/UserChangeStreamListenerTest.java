@@ -0,0 +1,206 @@
+package com.github.erf88.cache;
+
+import com.github.erf88.config.UserCacheProperties;
+import com.github.erf88.config.UserChangeStreamProperties;
+import com.github.erf88.entity.User;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeStreamListenerTest {
+
+    private static final String COLLECTION = "user";
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Spy
+    private UserCache cache = new UserCache(new UserCacheProperties(true, 100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private UserChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new UserChangeStreamListener(mongoTemplate, cache,
+                new UserChangeStreamProperties(true, Duration.ofMillis(10), Duration.ofMillis(10)), registry);
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn(COLLECTION);
+    }
+
+    @Test
+    void testChangesInvalidateCachedUsers() {
+        final ObjectId id = new ObjectId();
+        when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(Flux.just(event(OperationType.UPDATE, id, "1"), event(OperationType.DELETE, id, "2"))
+                        .concatWith(Flux.never()));
+
+        StepVerifier.create(listener.listen())
+                .expectNextCount(2)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(cache, times(2)).invalidate(id.toHexString());
+        verify(cache, never()).invalidateAll();
+        assertEquals(token("2"), listener.getResumeToken());
+    }
+
+    @Test
+    void testRestartResumesAfterLastTokenWithoutFlushingCache() {
+        final ObjectId id = new ObjectId();
+        when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(Flux.just(event(OperationType.INSERT, id, "1"))
+                        .concatWith(Flux.error(new UncategorizedMongoDbException("connection reset", new MongoException("reset")))))
+                .thenReturn(Flux.just(event(OperationType.UPDATE, id, "2")).concatWith(Flux.never()));
+
+        StepVerifier.create(listener.listen())
+                .expectNextCount(2)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        ArgumentCaptor<ChangeStreamOptions> options = ArgumentCaptor.forClass(ChangeStreamOptions.class);
+        verify(mongoTemplate, times(2)).changeStream(eq(COLLECTION), options.capture(), eq(Document.class));
+        List<ChangeStreamOptions> attempts = options.getAllValues();
+        assertTrue(attempts.get(0).getResumeToken().isEmpty());
+        assertEquals(token("1"), attempts.get(1).getResumeToken().orElseThrow());
+        verify(cache, never()).invalidateAll();
+    }
+
+    @Test
+    void testBackoffResetsOnceEventsFlowAgain() {
+        listener = new UserChangeStreamListener(mongoTemplate, cache,
+                new UserChangeStreamProperties(true, Duration.ofMillis(10), Duration.ofSeconds(1)), registry);
+        final ObjectId id = new ObjectId();
+        final AtomicInteger attempts = new AtomicInteger();
+        when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenAnswer(invocation -> {
+                    final int attempt = attempts.incrementAndGet();
+                    final Flux<ChangeStreamEvent<Document>> events = Flux.just(event(OperationType.UPDATE, id, String.valueOf(attempt)));
+                    return attempt < 8
+                            ? events.concatWith(Flux.error(new UncategorizedMongoDbException("connection reset", new MongoException("reset"))))
+                            : events.concatWith(Flux.never());
+                });
+
+        StepVerifier.withVirtualTime(() -> listener.listen())
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(200))
+                .expectNextCount(8)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(7, registry.get(UserChangeStreamListener.METRIC_PREFIX + ".restarts").counter().count());
+    }
+
+    @Test
+    void testUnresumableFailureIsRecordedAndFlushesCache() {
+        when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(Flux.error(new IllegalStateException("broken")));
+
+        listener.start();
+        listener.stop();
+
+        verify(mongoTemplate, times(1)).changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class));
+        verify(cache, times(1)).invalidateAll();
+        assertEquals(1, registry.get(UserChangeStreamListener.METRIC_PREFIX + ".terminated")
+                .tag("exception", "IllegalStateException").counter().count());
+    }
+
+    @Test
+    void testLostHistoryFlushesCacheAndStartsOver() {
+        final ObjectId id = new ObjectId();
+        when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(Flux.just(event(OperationType.INSERT, id, "1"))
+                        .concatWith(Flux.error(new UncategorizedMongoDbException("history lost", new MongoException(286, "history lost")))))
+                .thenReturn(Flux.never());
+
+        StepVerifier.create(listener.listen())
+                .expectNextCount(1)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        ArgumentCaptor<ChangeStreamOptions> options = ArgumentCaptor.forClass(ChangeStreamOptions.class);
+        verify(mongoTemplate, times(2)).changeStream(eq(COLLECTION), options.capture(), eq(Document.class));
+        assertTrue(options.getAllValues().get(1).getResumeToken().isEmpty());
+        verify(cache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testInvalidateEventFlushesCache() {
+        when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(Flux.just(event(OperationType.INVALIDATE, (BsonValue) null, "1")))
+                .thenReturn(Flux.never());
+
+        StepVerifier.create(listener.listen())
+                .expectNextCount(1)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(cache, times(1)).invalidateAll();
+        assertNull(listener.getResumeToken());
+    }
+
+    @Test
+    void testUnknownIdTypeFlushesCacheWithoutRestarting() {
+        when(mongoTemplate.changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class)))
+                .thenReturn(Flux.just(event(OperationType.DELETE, new BsonInt32(42), "1")).concatWith(Flux.never()));
+
+        StepVerifier.create(listener.listen())
+                .expectNextCount(1)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(mongoTemplate, times(1)).changeStream(eq(COLLECTION), any(ChangeStreamOptions.class), eq(Document.class));
+        verify(cache, times(1)).invalidateAll();
+        assertEquals(token("1"), listener.getResumeToken());
+    }
+
+    private static ChangeStreamEvent<Document> event(OperationType operationType, ObjectId id, String token) {
+        return event(operationType, id == null ? null : new BsonObjectId(id), token);
+    }
+
+    private static ChangeStreamEvent<Document> event(OperationType operationType, BsonValue id, String token) {
+        final BsonDocument documentKey = id == null ? null : new BsonDocument("_id", id);
+        final ChangeStreamDocument<Document> raw = new ChangeStreamDocument<>(operationType.getValue(), token(token),
+                null, null, null, null, documentKey, null, null, null, null, null, null, null);
+        return new ChangeStreamEvent<>(raw, Document.class, mock(MongoConverter.class));
+    }
+
+    private static BsonDocument token(String value) {
+        return new BsonDocument("_data", new BsonString(value));
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.github.erf88.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipDataBuffersTest {
+
+    private static final DefaultDataBufferFactory FACTORY = DefaultDataBufferFactory.sharedInstance;
+    private static final long MAX_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_RATIO = 100;
+
+    @DisplayName("Test compressed output is readable by GZIPInputStream")
+    @Test
+    void testCompress() throws IOException {
+        final byte[] payload = payload(200_000);
+
+        final byte[] compressed = join(GzipDataBuffers.compress(chunks(payload, 4096), FACTORY));
+
+        assertTrue(compressed.length < payload.length);
+        assertArrayEquals(payload, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+    }
+
+    @DisplayName("Test compressing an empty stream yields an empty gzip member")
+    @Test
+    void testCompressEmpty() throws IOException {
+        final byte[] compressed = join(GzipDataBuffers.compress(Flux.empty(), FACTORY));
+
+        assertEquals(0, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes().length);
+    }
+
+    @DisplayName("Test decompress GZIPOutputStream members split at every boundary size")
+    @Test
+    void testDecompress() {
+        final byte[] first = payload(100_000);
+        final byte[] second = "{\"name\":\"tail\"}\n".getBytes(StandardCharsets.UTF_8);
+        final byte[] members = concat(gzip(first), gzip(second));
+
+        for (int size : new int[] { 1, 7, 10, 11, 4096, members.length }) {
+            assertArrayEquals(concat(first, second), join(decompress(chunks(members, size))), "chunk size " + size);
+        }
+    }
+
+    @DisplayName("Test decompress skips optional header fields")
+    @Test
+    void testDecompressWithOptionalHeader() {
+        final byte[] payload = payload(1000);
+        final byte[] plain = gzip(payload);
+        final byte[] extra = { 3, 0, 'a', 'b', 'c' };
+        final byte[] emptyExtra = Arrays.copyOf(plain, 12);
+        emptyExtra[3] = 0x04;
+        emptyExtra[10] = emptyExtra[11] = 0;
+        final byte[] name = "users.ndjson\0".getBytes(StandardCharsets.ISO_8859_1);
+        final byte[] comment = "backup\0".getBytes(StandardCharsets.ISO_8859_1);
+        final byte[] header = Arrays.copyOf(plain, 10);
+        header[3] = 0x04 | 0x08 | 0x10 | 0x02;
+        final byte[] gzip = concat(concat(concat(concat(concat(header, extra), name), comment), new byte[] { 0, 0 }),
+                Arrays.copyOfRange(plain, 10, plain.length));
+
+        assertArrayEquals(payload, join(decompress(chunks(gzip, 3))));
+        assertArrayEquals(payload, join(decompress(chunks(concat(emptyExtra, Arrays.copyOfRange(plain, 10, plain.length)), 5))));
+    }
+
+    @DisplayName("Test decompress rejects a header that never terminates")
+    @Test
+    void testDecompressRejectsOversizedHeader() {
+        final byte[] header = Arrays.copyOf(gzip(payload(10)), 10);
+        header[3] = 0x08;
+        final byte[] name = new byte[1024 * 1024];
+        Arrays.fill(name, (byte) 'a');
+
+        StepVerifier.create(decompress(chunks(concat(header, name), 8192)))
+                .verifyErrorMatches(ex -> ex instanceof DecodingException && ex.getMessage().contains("header exceeds 65536 bytes"));
+    }
+
+    @DisplayName("Test decompress round trips compress")
+    @Test
+    void testRoundTrip() {
+        final byte[] payload = payload(150_000);
+
+        assertArrayEquals(payload, join(decompress(GzipDataBuffers.compress(chunks(payload, 1000), FACTORY))));
+        assertEquals(0, join(decompress(Flux.empty())).length);
+    }
+
+    @DisplayName("Test decompress rejects corrupt and truncated input")
+    @Test
+    void testDecompressErrors() {
+        final byte[] gzip = gzip(payload(1000));
+        final byte[] corrupt = gzip.clone();
+        corrupt[corrupt.length - 8] ^= 1;
+
+        StepVerifier.create(decompress(chunks("not gzip".getBytes(StandardCharsets.UTF_8), 4)))
+                .verifyErrorMatches(ex -> ex instanceof DecodingException && ex.getMessage().contains("not in gzip format"));
+        StepVerifier.create(decompress(chunks(Arrays.copyOf(gzip, gzip.length - 3), 64)).then())
+                .verifyErrorMatches(ex -> ex instanceof DecodingException && ex.getMessage().contains("unexpected end"));
+        StepVerifier.create(decompress(chunks(corrupt, 64)).then())
+                .verifyErrorMatches(ex -> ex instanceof DecodingException && ex.getMessage().contains("CRC mismatch"));
+    }
+
+    @DisplayName("Test decompress stops at the inflated size limit")
+    @Test
+    void testDecompressRejectsOversizedOutput() {
+        final byte[] gzip = gzip(payload(200_000));
+
+        StepVerifier.create(GzipDataBuffers.decompress(chunks(gzip, 4096), FACTORY, 100_000, Integer.MAX_VALUE).then())
+                .verifyErrorMatches(ex -> ex instanceof DataBufferLimitException && ex.getMessage().contains("limit of 100000 bytes"));
+    }
+
+    @DisplayName("Test decompress rejects a highly compressed bomb before inflating it")
+    @Test
+    void testDecompressRejectsCompressionRatio() {
+        final byte[] gzip = gzip(new byte[64 * 1024 * 1024]);
+
+        StepVerifier.create(GzipDataBuffers.decompress(chunks(gzip, 64), FACTORY, Long.MAX_VALUE, MAX_RATIO).then())
+                .verifyErrorMatches(ex -> ex instanceof DataBufferLimitException && ex.getMessage().contains("ratio exceeds the limit of 100"));
+    }
+
+    private static Flux<DataBuffer> decompress(final Flux<DataBuffer> input) {
+        return GzipDataBuffers.decompress(input, FACTORY, MAX_SIZE, MAX_RATIO);
+    }
+
+    private static byte[] payload(final int size) {
+        final StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; builder.length() < size; i++) {
+            builder.append("{\"id\":\"").append(Integer.toHexString(i * 7919)).append("\",\"name\":\"user-").append(i).append("\"}\n");
+        }
+        return builder.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Flux<DataBuffer> chunks(final byte[] bytes, final int size) {
+        final List<byte[]> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            chunks.add(Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + size)));
+        }
+        return Flux.fromIterable(chunks).map(FACTORY::wrap);
+    }
+
+    private static byte[] join(final Flux<DataBuffer> buffers) {
+        final DataBuffer joined = DataBufferUtils.join(buffers).block();
+        if (joined == null) {
+            return new byte[0];
+        }
+        final byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    private static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second) {
+        final byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+}
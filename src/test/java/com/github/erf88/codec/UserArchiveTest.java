@@ -0,0 +1,71 @@
+package com.github.erf88.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.erf88.config.UserArchiveProperties;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserArchiveTest {
+
+    private static final NettyDataBufferFactory FACTORY = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    private final UserArchive archive = new UserArchive(new ObjectMapper(), new UserArchiveProperties(DataSize.ofMegabytes(1), 100, null));
+
+    @DisplayName("Test malformed plain ndjson fails with 400 and releases every request buffer once")
+    @Test
+    void testReadMalformedPlainReleasesBuffers() {
+        verifyRejected(false, "{\"name\":\"a\"}\n".getBytes(StandardCharsets.UTF_8),
+                "{\"name\":\"b\"}\n{bad\n".getBytes(StandardCharsets.UTF_8),
+                "{\"name\":\"c\"}\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Test malformed gzip ndjson fails with 400 and releases every request buffer once")
+    @Test
+    void testReadMalformedGzipReleasesBuffers() throws IOException {
+        verifyRejected(true, gzip("{\"name\":\"a\"}\n{bad\n"));
+    }
+
+    // Mirrors reactor-netty: the request body is retained for the application and the server releases its own reference
+    // after onNext, while the response writer installs a DataBuffer discard hook downstream of the decoder.
+    private void verifyRejected(final boolean gzip, final byte[]... chunks) {
+        final List<ByteBuf> received = new CopyOnWriteArrayList<>();
+        final Flux<DataBuffer> body = Flux.just(chunks)
+                .map(chunk -> PooledByteBufAllocator.DEFAULT.buffer().writeBytes(chunk))
+                .doOnNext(received::add)
+                .map(buffer -> FACTORY.wrap(buffer.retain()));
+
+        StepVerifier.create(archive.read(body, gzip).then().doOnDiscard(DataBuffer.class, DataBufferUtils::release))
+                .verifyError(ServerWebInputException.class);
+
+        assertFalse(received.isEmpty());
+        received.forEach(buffer -> assertTrue(buffer.release(), "request buffer still referenced"));
+    }
+
+    private static byte[] gzip(final String content) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return output.toByteArray();
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.github.erf88.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.erf88.controller.exceptions.StandardError;
+import com.github.erf88.controller.exceptions.ValidationError;
+import com.github.erf88.model.response.UserResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserJsonEncoderTest {
+
+    private final UserJsonEncoder encoder = new UserJsonEncoder();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @DisplayName("Test encoder output matches the default Jackson serialization")
+    @Test
+    void testMatchesJackson() throws Exception {
+        final ValidationError validation = new ValidationError(OffsetDateTime.of(2024, 1, 12, 10, 15, 0, 0, ZoneOffset.ofHours(-3)),
+                "/users", 400, "Validation error", "Error on validation attributes");
+        validation.addError("name", "must be between 3 and 50 characters");
+        validation.addError("email", null);
+
+        for (Object value : new Object[] {
+                new UserResponse("65a1c0f1e4b0a1b2c3d4e5f6", "usuário \"quoted\"", "usuario@email.com"),
+                new UserResponse(null, "usuario\n ", null),
+                StandardError.builder().timestamp(OffsetDateTime.now()).path("/users/1").status(404).message("Object not found").build(),
+                StandardError.builder().build(),
+                validation
+        }) {
+            assertEquals(objectMapper.writeValueAsString(value), encode(Mono.just(value), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @DisplayName("Test encoder writes JSON arrays and NDJSON streams")
+    @Test
+    void testEncodeFlux() {
+        final UserResponse first = new UserResponse("1", "a", null);
+        final UserResponse second = new UserResponse("2", "b", null);
+
+        assertEquals("[{\"id\":\"1\",\"name\":\"a\"},{\"id\":\"2\",\"name\":\"b\"}]", encode(Flux.just(first, second), MediaType.APPLICATION_JSON));
+        assertEquals("[]", encode(Flux.empty(), MediaType.APPLICATION_JSON));
+        assertEquals("{\"id\":\"1\",\"name\":\"a\"}\n{\"id\":\"2\",\"name\":\"b\"}\n", encode(Flux.just(first, second), MediaType.APPLICATION_NDJSON));
+    }
+
+    @DisplayName("Test encoder only claims user responses and errors")
+    @Test
+    void testCanEncode() {
+        assertTrue(encoder.canEncode(ResolvableType.forClass(UserResponse.class), MediaType.APPLICATION_JSON));
+        assertTrue(encoder.canEncode(ResolvableType.forClass(ValidationError.class), null));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(UserResponse.class), MediaType.TEXT_EVENT_STREAM));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON));
+    }
+
+    private String encode(final Publisher<?> input, final MediaType mediaType) {
+        final DataBuffer joined = DataBufferUtils.join(encoder.encode(input, DefaultDataBufferFactory.sharedInstance,
+                ResolvableType.forClass(Object.class), mediaType, Map.of())).block();
+        return joined == null ? "" : joined.toString(StandardCharsets.UTF_8);
+    }
+
+}
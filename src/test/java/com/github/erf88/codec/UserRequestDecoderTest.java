@@ -0,0 +1,91 @@
+package com.github.erf88.codec;
+
+import com.github.erf88.model.request.UserRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRequestDecoderTest {
+
+    private static final ResolvableType TYPE = ResolvableType.forClass(UserRequest.class);
+
+    private final UserRequestDecoder decoder = new UserRequestDecoder();
+
+    @DisplayName("Test decode single object with escapes, coercion and unknown fields")
+    @Test
+    void testDecodeToMono() {
+        StepVerifier.create(decoder.decodeToMono(chunks("{\"name\":\"usu\\u00e1rio \\\"x\\\"\",\"extra\":{\"a\":[1,{\"b\":2}]},",
+                        "\"email\" : null, \"password\":12345 , \"name2\":\"x\"}"), TYPE, MediaType.APPLICATION_JSON, Map.of()))
+                .expectNext(new UserRequest("usuário \"x\"", null, "12345"))
+                .verifyComplete();
+
+        StepVerifier.create(decoder.decodeToMono(chunks("  "), TYPE, MediaType.APPLICATION_JSON, Map.of()))
+                .verifyComplete();
+    }
+
+    @DisplayName("Test decode NDJSON and JSON arrays split across buffers")
+    @Test
+    void testDecodeFlux() {
+        final UserRequest first = new UserRequest("a", "a@email.com", null);
+        final UserRequest second = new UserRequest("b", null, "secret");
+
+        StepVerifier.create(decoder.decode(chunks("{\"name\":\"a\",\"em", "ail\":\"a@email.com\"}\n{\"name\":", "\"b\",\"password\":\"secret\"}\n"),
+                        TYPE, MediaType.APPLICATION_NDJSON, Map.of()))
+                .expectNext(first, second)
+                .verifyComplete();
+
+        StepVerifier.create(decoder.decode(chunks("[{\"name\":\"a\",\"email\":\"a@email.com\"}", ",{\"name\":\"b\",\"password\":\"secret\"}]"),
+                        TYPE, MediaType.APPLICATION_JSON, Map.of()))
+                .expectNext(first, second)
+                .verifyComplete();
+    }
+
+    @DisplayName("Test decode rejects malformed, mistyped and oversized input")
+    @Test
+    void testDecodeErrors() {
+        StepVerifier.create(decoder.decodeToMono(chunks("{\"name\":"), TYPE, MediaType.APPLICATION_JSON, Map.of()))
+                .expectError(DecodingException.class)
+                .verify();
+
+        StepVerifier.create(decoder.decodeToMono(chunks("{\"name\":[\"a\"]}"), TYPE, MediaType.APPLICATION_JSON, Map.of()))
+                .expectError(DecodingException.class)
+                .verify();
+
+        StepVerifier.create(decoder.decodeToMono(chunks("[{\"name\":\"a\"}]"), TYPE, MediaType.APPLICATION_JSON, Map.of()))
+                .expectError(DecodingException.class)
+                .verify();
+
+        final UserRequestDecoder limited = new UserRequestDecoder();
+        limited.setMaxInMemorySize(32);
+        StepVerifier.create(limited.decode(chunks("{\"name\":\"a\"}\n", "{\"name\":\"" + "a".repeat(64) + "\"}\n"), TYPE, MediaType.APPLICATION_NDJSON, Map.of()))
+                .expectNext(new UserRequest("a", null, null))
+                .expectError(DataBufferLimitException.class)
+                .verify();
+    }
+
+    @DisplayName("Test decoder only claims user requests")
+    @Test
+    void testCanDecode() {
+        assertTrue(decoder.canDecode(TYPE, MediaType.APPLICATION_NDJSON));
+        assertFalse(decoder.canDecode(TYPE, MediaType.TEXT_PLAIN));
+        assertFalse(decoder.canDecode(ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON));
+    }
+
+    private static Flux<DataBuffer> chunks(final String... chunks) {
+        return Flux.fromArray(chunks).map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -1,39 +1,87 @@
 package com.github.erf88.controller;
 
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.codec.UserJsonEncoder;
+import com.github.erf88.codec.UserRequestDecoder;
+import com.github.erf88.controller.exceptions.StandardError;
+import com.github.erf88.controller.impl.UserControllerImpl;
 import com.github.erf88.entity.User;
 import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.model.UserDocument;
+import com.github.erf88.model.request.UserLookupRequest;
 import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.BatchItemResponse;
+import com.github.erf88.model.response.UserImportResponse;
 import com.github.erf88.model.response.UserResponse;
+import com.github.erf88.service.CountMode;
+import com.github.erf88.service.PageCursor;
+import com.github.erf88.service.SearchCursor;
+import com.github.erf88.service.SearchMode;
+import com.github.erf88.service.UserFields;
 import com.github.erf88.service.UserService;
+import com.github.erf88.service.exception.DuplicateUserException;
+import com.github.erf88.service.exception.InvalidCursorException;
 import com.github.erf88.service.exception.ObjectNotFoundException;
+import com.github.erf88.service.exception.PreconditionFailedException;
 import com.mongodb.reactivestreams.client.MongoClient;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
 
+@AutoConfigureObservability(tracing = false)
 @AutoConfigureWebTestClient
 @ExtendWith(SpringExtension.class)
-@SpringBootTest
+@SpringBootTest(properties = "users.archive.token=" + UserControllerImplTest.TOKEN)
 class UserControllerImplTest {
 
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private ServerCodecConfigurer codecConfigurer;
+
     @MockBean
     private UserService service;
 
@@ -48,6 +96,7 @@ class UserControllerImplTest {
     public static final String NAME = "usuario";
     public static final String EMAIL = "usuario@email.com";
     public static final String PASSWORD = "usuario123";
+    public static final String TOKEN = "archive-token";
 
     @DisplayName("Test save endpoint with success")
     @Test
@@ -65,6 +114,40 @@ class UserControllerImplTest {
         verify(service, times(1)).save(any(UserRequest.class));
     }
 
+    @DisplayName("Test save endpoint with duplicated e-mail")
+    @Test
+    void testSaveWithConflict() {
+        when(service.save(any(UserRequest.class))).thenReturn(Mono.error(new DuplicateUserException(DuplicateUserException.EMAIL_KEY)));
+
+        webTestClient.post()
+                .uri(BASE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserRequest(NAME, EMAIL, PASSWORD)))
+                .exchange()
+                .expectStatus().isEqualTo(CONFLICT)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(CONFLICT.value())
+                .jsonPath("$.message").isEqualTo("E-mail already registered");
+    }
+
+    @DisplayName("Test save endpoint in create-if-absent mode")
+    @Test
+    void testSaveIfAbsent() {
+        when(service.saveIfAbsent(any(UserRequest.class))).thenReturn(Mono.just(true)).thenReturn(Mono.just(false));
+
+        for (HttpStatus expected : List.of(CREATED, OK)) {
+            webTestClient.post()
+                    .uri(BASE_URI.concat("?ifAbsent=true"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(BodyInserters.fromValue(new UserRequest(NAME, EMAIL, PASSWORD)))
+                    .exchange()
+                    .expectStatus().isEqualTo(expected);
+        }
+
+        verify(service, times(2)).saveIfAbsent(any(UserRequest.class));
+        verify(service, never()).save(any(UserRequest.class));
+    }
+
     @DisplayName("Test save endpoint with bad request")
     @Test
     void testSaveWithBadRequest() {
@@ -85,6 +168,50 @@ class UserControllerImplTest {
                 .jsonPath("$.errors[0].message").isEqualTo("invalid email");
     }
 
+    @DisplayName("Test batch save endpoint with json array")
+    @Test
+    void testSaveAllWithJsonArray() {
+        final UserRequest request = new UserRequest(NAME, EMAIL, PASSWORD);
+        when(service.saveAll(any())).thenAnswer(invocation -> invocation.<Flux<UserRequest>>getArgument(0)
+                .index()
+                .map(item -> new BatchItemResponse(item.getT1(), ID, CREATED.value(), null)));
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(List.of(request, request)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$.[1].index").isEqualTo(1)
+                .jsonPath("$.[1].id").isEqualTo(ID)
+                .jsonPath("$.[1].status").isEqualTo(CREATED.value());
+
+        verify(service, times(1)).saveAll(any());
+    }
+
+    @DisplayName("Test batch save endpoint with ndjson")
+    @Test
+    void testSaveAllWithNdjson() {
+        final String body = """
+                {"name":"%s","email":"%s","password":"%s"}
+                {"name":"%s","email":"%s","password":"%s"}
+                """.formatted(NAME, EMAIL, PASSWORD, NAME, EMAIL, PASSWORD);
+        when(service.saveAll(any())).thenAnswer(invocation -> invocation.<Flux<UserRequest>>getArgument(0)
+                .index()
+                .map(item -> new BatchItemResponse(item.getT1(), ID, CREATED.value(), null)));
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/batch"))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
     private WebTestClient.BodyContentSpec expectValidation(UserRequest request) {
         return webTestClient.post()
                 .uri(BASE_URI)
@@ -102,7 +229,7 @@ class UserControllerImplTest {
     @DisplayName("Test find by id endpoint with success")
     @Test
     void testFindByIdWithSuccess() {
-        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL, PASSWORD);
+        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
         when(service.findById(anyString())).thenReturn(Mono.just(User.builder().build()));
         when(mapper.toResponse(any(User.class))).thenReturn(userResponse);
 
@@ -115,12 +242,158 @@ class UserControllerImplTest {
                 .jsonPath("$.id").isEqualTo(ID)
                 .jsonPath("$.name").isEqualTo(NAME)
                 .jsonPath("$.email").isEqualTo(EMAIL)
-                .jsonPath("$.password").isEqualTo(PASSWORD);
+                .jsonPath("$.password").doesNotExist();
 
         verify(service, times(1)).findById(anyString());
         verify(mapper, times(1)).toResponse(any(User.class));
     }
 
+    @DisplayName("Test find by id endpoint with If-None-Match")
+    @Test
+    void testFindByIdNotModified() {
+        when(service.findById(anyString())).thenReturn(Mono.just(User.builder().id(ID).version(7L).build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-7\"");
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID).concat("?fields=summary"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-7-n\"");
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"123-7\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-7\"")
+                .expectBody().isEmpty();
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"123-6\"")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(mapper, times(3)).toResponse(any(User.class));
+    }
+
+    @DisplayName("Test find by email endpoint ignores the ETag of a deleted user whose e-mail was reused")
+    @Test
+    void testFindByEmailAfterRecreate() {
+        final String recreated = new ObjectId().toHexString();
+        when(service.findByEmail(EMAIL)).thenReturn(Mono.just(User.builder().id(ID).version(0L).build()),
+                Mono.just(User.builder().id(recreated).version(0L).build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL), new UserResponse(recreated, NAME, EMAIL));
+
+        final String etag = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_URI.concat("/by-email")).queryParam("email", EMAIL).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-0\"")
+                .returnResult(UserResponse.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_URI.concat("/by-email")).queryParam("email", EMAIL).build())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"%s-0\"".formatted(recreated))
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(recreated);
+    }
+
+    @DisplayName("Test find by email endpoint with success")
+    @Test
+    void testFindByEmailWithSuccess() {
+        when(service.findByEmail(EMAIL)).thenReturn(Mono.just(User.builder().build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_URI.concat("/by-email")).queryParam("email", EMAIL).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(ID)
+                .jsonPath("$.email").isEqualTo(EMAIL);
+
+        verify(service, times(1)).findByEmail(EMAIL);
+        verify(service, never()).findById(anyString());
+    }
+
+    @DisplayName("Test search endpoint with success")
+    @Test
+    void testSearchWithSuccess() {
+        final String id = new ObjectId().toHexString();
+        when(service.search(eq("usu"), eq(SearchMode.PREFIX), isNull(), anyInt(), eq(UserFields.SUMMARY)))
+                .thenReturn(Flux.just(User.builder().id(id).name(NAME).build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(id, NAME, EMAIL));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/search?q=usu&fields=summary"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$.[0].cursor").isEqualTo(new SearchCursor(id, NAME).encode())
+                .jsonPath("$.[0].user.name").isEqualTo(NAME)
+                .jsonPath("$.[0].user.email").doesNotExist();
+    }
+
+    @DisplayName("Test search endpoint with invalid mode")
+    @Test
+    void testSearchWithInvalidMode() {
+        webTestClient.get()
+                .uri(BASE_URI.concat("/search?q=usu&mode=fuzzy"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid search mode: fuzzy");
+
+        verify(service, never()).search(any(), any(), any(), anyInt(), any());
+    }
+
+    @DisplayName("Test count endpoint with estimated and exact modes")
+    @Test
+    void testCount() {
+        when(service.count(CountMode.ESTIMATED, null)).thenReturn(Mono.just(1_000L));
+        when(service.count(CountMode.EXACT, "usu")).thenReturn(Mono.just(12L));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/count"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.mode").isEqualTo("estimated")
+                .jsonPath("$.count").isEqualTo(1_000);
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/count?mode=exact&name=usu"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.mode").isEqualTo("exact")
+                .jsonPath("$.count").isEqualTo(12);
+
+        verify(service, never()).findById(anyString());
+    }
+
     @DisplayName("Test find by id endpoint with not found")
     @Test
     void testFindByIdWithNotFound() {
@@ -142,11 +415,69 @@ class UserControllerImplTest {
         verify(service, times(1)).findById(anyString());
     }
 
+    @DisplayName("Test lookup endpoint keeps request order and marks missing ids")
+    @Test
+    void testLookupWithSuccess() {
+        final String missing = "456";
+        when(service.findAllById(anyList())).thenReturn(Mono.just(Map.of(ID, User.builder().id(ID).build())));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL));
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/lookup?fields=summary"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserLookupRequest(List.of(missing, ID))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$.[0].id").isEqualTo(missing)
+                .jsonPath("$.[0].status").isEqualTo(NOT_FOUND.value())
+                .jsonPath("$.[0].user").doesNotExist()
+                .jsonPath("$.[1].id").isEqualTo(ID)
+                .jsonPath("$.[1].status").isEqualTo(200)
+                .jsonPath("$.[1].user.name").isEqualTo(NAME)
+                .jsonPath("$.[1].user.email").doesNotExist();
+
+        verify(service, times(1)).findAllById(List.of(missing, ID));
+    }
+
+    @DisplayName("Test lookup endpoint with empty ids")
+    @Test
+    void testLookupWithEmptyIds() {
+        webTestClient.post()
+                .uri(BASE_URI.concat("/lookup"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserLookupRequest(List.of())))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0].fieldName").isEqualTo("ids");
+
+        verify(service, never()).findAllById(anyList());
+    }
+
+    @DisplayName("Test lookup endpoint with a null id")
+    @Test
+    void testLookupWithNullId() {
+        webTestClient.post()
+                .uri(BASE_URI.concat("/lookup"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"ids\":[null]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0].fieldName").isEqualTo("ids[0]")
+                .jsonPath("$.errors[0].message").isEqualTo("must not be null or empty");
+
+        verify(service, never()).findAllById(anyList());
+    }
+
     @DisplayName("Test find all endpoint with success")
     @Test
     void testFindAllWithSuccess() {
-        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL, PASSWORD);
-        when(service.findAll()).thenReturn(Flux.just(User.builder().build()));
+        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
+        when(service.findPage(isNull(), anyInt(), eq(UserFields.ALL))).thenReturn(Flux.just(User.builder().build()));
         when(mapper.toResponse(any(User.class))).thenReturn(userResponse);
 
         webTestClient.get()
@@ -154,22 +485,304 @@ class UserControllerImplTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().doesNotExist(UserControllerImpl.NEXT_CURSOR_HEADER)
                 .expectBody()
                 .jsonPath("$.[0].id").isEqualTo(ID)
                 .jsonPath("$.[0].name").isEqualTo(NAME)
                 .jsonPath("$.[0].email").isEqualTo(EMAIL)
-                .jsonPath("$.[0].password").isEqualTo(PASSWORD);
+                .jsonPath("$.[0].password").doesNotExist();
 
-        verify(service, times(1)).findAll();
+        verify(service, times(1)).findPage(isNull(), eq(UserService.DEFAULT_PAGE_SIZE), eq(UserFields.ALL));
         verify(mapper, times(1)).toResponse(any(User.class));
     }
 
+    @DisplayName("Test find all endpoint with summary view")
+    @Test
+    void testFindAllWithSummaryView() {
+        when(service.findPage(isNull(), anyInt(), eq(UserFields.SUMMARY))).thenReturn(Flux.just(User.builder().build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, null));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("?fields=summary"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.[0].id").isEqualTo(ID)
+                .jsonPath("$.[0].name").isEqualTo(NAME)
+                .jsonPath("$.[0].email").doesNotExist();
+
+        verify(service, times(1)).findPage(isNull(), anyInt(), eq(UserFields.SUMMARY));
+    }
+
+    @DisplayName("Test find by id endpoint with field selection")
+    @Test
+    void testFindByIdWithFields() {
+        when(service.findById(anyString())).thenReturn(Mono.just(User.builder().build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID).concat("?fields=id,email"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(ID)
+                .jsonPath("$.name").doesNotExist()
+                .jsonPath("$.email").isEqualTo(EMAIL);
+    }
+
+    @DisplayName("Test find all endpoint with invalid field")
+    @Test
+    void testFindAllWithInvalidField() {
+        webTestClient.get()
+                .uri(BASE_URI.concat("?fields=name,password"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(BAD_REQUEST.value())
+                .jsonPath("$.message").isEqualTo("Invalid field: password");
+
+        verify(service, never()).findPage(any(), anyInt(), any(UserFields.class));
+    }
+
+    @DisplayName("Test find all endpoint returns next cursor when the page is full")
+    @Test
+    void testFindAllWithNextCursor() {
+        final String lastId = new ObjectId().toHexString();
+        final String cursor = PageCursor.encode(new ObjectId().toHexString());
+        when(service.findPage(eq(cursor), eq(2), any(UserFields.class))).thenReturn(Flux.just(User.builder().build(), User.builder().build()));
+        when(mapper.toResponse(any(User.class)))
+                .thenReturn(new UserResponse(ID, NAME, EMAIL))
+                .thenReturn(new UserResponse(lastId, NAME, EMAIL));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_URI).queryParam("after", cursor).queryParam("limit", 2).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(UserControllerImpl.NEXT_CURSOR_HEADER, PageCursor.encode(lastId))
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$.[1].id").isEqualTo(lastId);
+    }
+
+    @DisplayName("Test find all endpoint with invalid cursor")
+    @Test
+    void testFindAllWithInvalidCursor() {
+        when(service.findPage(anyString(), anyInt(), any(UserFields.class))).thenReturn(Flux.error(new InvalidCursorException("Invalid cursor: abc")));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("?after=abc"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(BAD_REQUEST.value())
+                .jsonPath("$.message").isEqualTo("Invalid cursor: abc");
+    }
+
+    @DisplayName("Test find all endpoint defaults to the paged JSON listing")
+    @Test
+    void testFindAllWithAnyMediaType() {
+        when(service.findPage(isNull(), anyInt(), any(UserFields.class))).thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri(BASE_URI)
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+
+        verify(service, times(1)).findPage(isNull(), anyInt(), any(UserFields.class));
+        verify(service, never()).findAll(any(UserFields.class));
+    }
+
+    @DisplayName("Test stream endpoint with ndjson")
+    @Test
+    void testStreamWithNdjson() {
+        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
+        when(service.findAll(UserFields.ALL)).thenReturn(Flux.just(User.builder().build(), User.builder().build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        Flux<UserResponse> body = webTestClient.get()
+                .uri(BASE_URI)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserResponse.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .expectNext(userResponse, userResponse)
+                .expectComplete()
+                .verify();
+
+        verify(service, times(1)).findAll(UserFields.ALL);
+    }
+
+    @DisplayName("Test stream endpoint with server sent events")
+    @Test
+    void testStreamWithServerSentEvents() {
+        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
+        when(service.findAll(UserFields.ALL)).thenReturn(Flux.just(User.builder().build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        webTestClient.get()
+                .uri(BASE_URI)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBody(String.class)
+                .value(body -> assertTrue(body.startsWith("data:{\"id\":\"%s\"".formatted(ID))));
+
+        verify(service, times(1)).findAll(UserFields.ALL);
+    }
+
+    @DisplayName("Test export endpoint streams a gzip archive")
+    @Test
+    void testExport() throws IOException {
+        when(service.export()).thenReturn(Flux.just(User.builder().id("1").build(), User.builder().id("2").build()));
+        when(mapper.toDocument(any(User.class))).thenAnswer(invocation -> {
+            final User user = invocation.getArgument(0);
+            return new UserDocument(user.getId(), NAME, EMAIL, "hash", 0L);
+        });
+
+        final byte[] body = webTestClient.get()
+                .uri(BASE_URI + "/export")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(UserArchive.MEDIA_TYPE)
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + UserArchive.FILENAME + "\"")
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("""
+                {"id":"1","name":"usuario","email":"usuario@email.com","password":"hash","version":0}
+                {"id":"2","name":"usuario","email":"usuario@email.com","password":"hash","version":0}
+                """, new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Test export and import endpoints require the archive token")
+    @Test
+    void testArchiveEndpointsRequireToken() {
+        webTestClient.get()
+                .uri(BASE_URI + "/export")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Archive access denied");
+
+        webTestClient.post()
+                .uri(BASE_URI + "/import")
+                .headers(headers -> headers.setBearerAuth("wrong"))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{}\n".getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verify(service, never()).export();
+        verify(service, never()).importAll(any());
+    }
+
+    @DisplayName("Test import endpoint decodes gzip and plain ndjson")
+    @Test
+    void testImport() throws IOException {
+        final String ndjson = """
+                {"id":"1","name":"a","email":"a@email.com","password":"hash","version":2}
+                {"name":"b","email":"b@email.com"}
+                """;
+        final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(gzip)) {
+            output.write(ndjson.getBytes(StandardCharsets.UTF_8));
+        }
+        final List<UserDocument> imported = new ArrayList<>();
+        when(service.importAll(any())).thenAnswer(invocation -> invocation.<Flux<UserDocument>>getArgument(0)
+                .doOnNext(imported::add)
+                .count()
+                .map(count -> new UserImportResponse(count, 0, List.of())));
+
+        webTestClient.post()
+                .uri(BASE_URI + "/import")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(UserArchive.MEDIA_TYPE)
+                .bodyValue(gzip.toByteArray())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(0);
+
+        webTestClient.post()
+                .uri(BASE_URI + "/import")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .bodyValue(gzip.toByteArray())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(2);
+
+        webTestClient.post()
+                .uri(BASE_URI + "/import")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(ndjson.getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(2);
+
+        final UserDocument first = new UserDocument("1", "a", "a@email.com", "hash", 2L);
+        final UserDocument second = new UserDocument(null, "b", "b@email.com", null, null);
+        assertEquals(List.of(first, second, first, second, first, second), imported);
+    }
+
+    @DisplayName("Test import endpoint rejects corrupt gzip")
+    @Test
+    void testImportWithCorruptGzip() {
+        when(service.importAll(any())).thenAnswer(invocation -> invocation.<Flux<UserDocument>>getArgument(0)
+                .count()
+                .map(count -> new UserImportResponse(count, 0, List.of())));
+
+        webTestClient.post()
+                .uri(BASE_URI + "/import")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(UserArchive.MEDIA_TYPE)
+                .bodyValue("{\"name\":\"a\"}\n".getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("Test import endpoint rejects malformed plain ndjson")
+    @Test
+    void testImportWithMalformedNdjson() {
+        when(service.importAll(any())).thenAnswer(invocation -> invocation.<Flux<UserDocument>>getArgument(0)
+                .count()
+                .map(count -> new UserImportResponse(count, 0, List.of())));
+
+        webTestClient.post()
+                .uri(BASE_URI + "/import")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"a\"}\n{bad\n".getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @DisplayName("Test update endpoint with success")
     @Test
     void testUpdateWithSuccess() {
         final UserRequest request = new UserRequest(NAME, EMAIL, PASSWORD);
-        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL, PASSWORD);
-        when(service.update(anyString(), any(UserRequest.class))).thenReturn(Mono.just(User.builder().build()));
+        final UserResponse userResponse = new UserResponse(ID, NAME, EMAIL);
+        when(service.update(anyString(), any(UserRequest.class), isNull())).thenReturn(Mono.just(User.builder().id(ID).version(2L).build()));
         when(mapper.toResponse(any(User.class))).thenReturn(userResponse);
 
         webTestClient.patch()
@@ -178,16 +791,71 @@ class UserControllerImplTest {
                 .body(BodyInserters.fromValue(request))
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-2\"")
                 .expectBody()
                 .jsonPath("$.id").isEqualTo(ID)
                 .jsonPath("$.name").isEqualTo(NAME)
                 .jsonPath("$.email").isEqualTo(EMAIL)
-                .jsonPath("$.password").isEqualTo(PASSWORD);
+                .jsonPath("$.password").doesNotExist();
 
-        verify(service, times(1)).update(anyString(), any(UserRequest.class));
+        verify(service, times(1)).update(anyString(), any(UserRequest.class), isNull());
         verify(mapper, times(1)).toResponse(any(User.class));
     }
 
+    @DisplayName("Test update endpoint with If-Match")
+    @Test
+    void testUpdateWithIfMatch() {
+        when(service.update(anyString(), any(UserRequest.class), eq(2L)))
+                .thenReturn(Mono.error(new PreconditionFailedException("Version mismatch. Id: 123, expected: 2, current: 3")));
+
+        webTestClient.patch()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"123-2-n\"")
+                .body(BodyInserters.fromValue(new UserRequest(NAME, null, null)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Version mismatch. Id: 123, expected: 2, current: 3");
+
+        webTestClient.patch()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "W/\"123-2\"")
+                .body(BodyInserters.fromValue(new UserRequest(NAME, null, null)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.patch()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"456-2\"")
+                .body(BodyInserters.fromValue(new UserRequest(NAME, null, null)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("If-Match does not match user 123: \"456-2\"");
+
+        verify(service, times(1)).update(anyString(), any(UserRequest.class), any());
+    }
+
+    @DisplayName("Test update endpoint validates only the fields that are present")
+    @Test
+    void testUpdateWithBadRequest() {
+        webTestClient.patch()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserRequest(" ".concat(NAME), null, null)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.length()").isEqualTo(1)
+                .jsonPath("$.errors[0].fieldName").isEqualTo("name")
+                .jsonPath("$.errors[0].message").isEqualTo("field cannot have black spaces at the beginning or at end");
+
+        verify(service, never()).update(anyString(), any(UserRequest.class), any());
+    }
+
     @DisplayName("Test delete endpoint with success")
     @Test
     void testDeleteWithSuccess() {
@@ -201,4 +869,34 @@ class UserControllerImplTest {
         verify(service, times(1)).delete(anyString());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Test prometheus endpoint exposes request and password hashing metrics")
+    @Test
+    void testPrometheusEndpoint() {
+        webTestClient.get()
+                .uri("/actuator/prometheus?includedNames={names}", "users_password_hash_seconds_count,executor_queued_tasks")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> {
+                    assertTrue(body.contains("users_password_hash_seconds"));
+                    assertTrue(body.contains("executor_queued_tasks{name=\"password-hasher\""));
+                });
+    }
+
+    @DisplayName("Test user payloads are bound by the precompiled codecs ahead of Jackson")
+    @Test
+    void testPrecompiledCodecsAreRegistered() {
+        final HttpMessageReader<?> reader = codecConfigurer.getReaders().stream()
+                .filter(candidate -> candidate.canRead(ResolvableType.forClass(UserRequest.class), MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+        final HttpMessageWriter<?> writer = codecConfigurer.getWriters().stream()
+                .filter(candidate -> candidate.canWrite(ResolvableType.forClass(StandardError.class), MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+
+        assertInstanceOf(UserRequestDecoder.class, ((DecoderHttpMessageReader<?>) reader).getDecoder());
+        assertInstanceOf(UserJsonEncoder.class, ((EncoderHttpMessageWriter<?>) writer).getEncoder());
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.github.erf88.controller;
+
+import com.github.erf88.EmbeddedMongoConfiguration;
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.entity.User;
+import com.github.erf88.model.request.UserRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+@AutoConfigureWebTestClient
+@ActiveProfiles("embedded")
+@Import(EmbeddedMongoConfiguration.class)
+@SpringBootTest(properties = "users.archive.token=" + UserEmailConflictMongoTest.TOKEN)
+class UserEmailConflictMongoTest {
+
+    static final String TOKEN = "archive-token";
+
+    private static final String EMAIL = "alice@email.com";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), User.class).block();
+        webTestClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequest("usuario", EMAIL, "usuario123"))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @DisplayName("Test save endpoint reports a duplicate e-mail from Mongo")
+    @Test
+    void testSaveWithDuplicateEmail() {
+        webTestClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequest("outro", EMAIL, "usuario123"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("E-mail already registered");
+    }
+
+    @DisplayName("Test batch endpoint reports a duplicate e-mail from a Mongo bulk write")
+    @Test
+    void testSaveAllWithDuplicateEmail() {
+        webTestClient.post()
+                .uri("/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new UserRequest("outro", EMAIL, "usuario123"), new UserRequest("novo", "novo@email.com", "usuario123")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(409)
+                .jsonPath("$[0].message").isEqualTo("E-mail already registered")
+                .jsonPath("$[1].status").isEqualTo(201);
+    }
+
+    @DisplayName("Test import endpoint tells a duplicate id from a duplicate e-mail")
+    @Test
+    void testImportWithDuplicateIdAndEmail() {
+        final User existing = mongoTemplate.findOne(Query.query(Criteria.where("email").is(EMAIL)), User.class).block();
+
+        webTestClient.post()
+                .uri("/users/import")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("""
+                        {"id":"%s","name":"outro","email":"outro@email.com","password":"hash","version":0}
+                        {"name":"outro","email":"%s","password":"hash","version":0}
+                        """.formatted(existing.getId(), EMAIL))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(0)
+                .jsonPath("$.failed").isEqualTo(2)
+                .jsonPath("$.errors[0].message").isEqualTo("Duplicate key exception")
+                .jsonPath("$.errors[1].message").isEqualTo("E-mail already registered");
+    }
+
+}
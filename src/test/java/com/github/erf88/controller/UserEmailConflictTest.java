@@ -0,0 +1,49 @@
+package com.github.erf88.controller;
+
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.repository.InMemoryUserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@AutoConfigureWebTestClient
+@ActiveProfiles(InMemoryUserRepository.PROFILE)
+@SpringBootTest(properties = "users.password.strength=4")
+class UserEmailConflictTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DisplayName("Test save endpoint rejects an e-mail differing only in case")
+    @Test
+    void testSaveWithCaseVariantEmail() {
+        webTestClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequest("usuario", "Alice@Email.com", "usuario123"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequest("outro", "alice@email.com", "usuario123"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("E-mail already registered");
+
+        webTestClient.get()
+                .uri("/users/by-email?email={email}", "ALICE@email.com")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("usuario");
+    }
+
+}
@@ -0,0 +1,355 @@
+package com.github.erf88.controller.functional;
+
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.controller.impl.UserControllerImpl;
+import com.github.erf88.entity.User;
+import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.model.UserDocument;
+import com.github.erf88.model.request.UserLookupRequest;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.UserImportResponse;
+import com.github.erf88.model.response.UserResponse;
+import com.github.erf88.service.UserFields;
+import com.github.erf88.service.UserService;
+import com.github.erf88.service.exception.DuplicateUserException;
+import com.github.erf88.service.exception.InvalidSearchException;
+import com.github.erf88.service.exception.ObjectNotFoundException;
+import com.github.erf88.service.exception.PreconditionFailedException;
+import com.mongodb.reactivestreams.client.MongoClient;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@AutoConfigureWebTestClient
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = { UserRouter.MODE_PROPERTY + "=" + UserRouter.FUNCTIONAL, "users.archive.token=" + UserHandlerTest.TOKEN })
+class UserHandlerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @MockBean
+    private UserService service;
+
+    @MockBean
+    private UserMapper mapper;
+
+    @MockBean
+    private MongoClient mongoClient;
+
+    public static final String ID = "123";
+    public static final String BASE_URI = "/users";
+    public static final String NAME = "usuario";
+    public static final String EMAIL = "usuario@email.com";
+    public static final String PASSWORD = "usuario123";
+    public static final String TOKEN = "archive-token";
+
+    @DisplayName("Test functional routes replace the annotated controller")
+    @Test
+    void testAnnotatedControllerIsDisabled() {
+        assertTrue(context.getBeansOfType(UserControllerImpl.class).isEmpty());
+    }
+
+    @DisplayName("Test save route with success and validation error")
+    @Test
+    void testSave() {
+        when(service.save(any(UserRequest.class))).thenReturn(Mono.just(User.builder().build()));
+
+        webTestClient.post()
+                .uri(BASE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserRequest(NAME, EMAIL, PASSWORD)))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.post()
+                .uri(BASE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserRequest(NAME.concat(" "), EMAIL, PASSWORD)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.path").isEqualTo(BASE_URI)
+                .jsonPath("$.error").isEqualTo("Validation error")
+                .jsonPath("$.errors[0].fieldName").isEqualTo("name")
+                .jsonPath("$.errors[0].message").isEqualTo("field cannot have black spaces at the beginning or at end");
+
+        verify(service, times(1)).save(any(UserRequest.class));
+    }
+
+    @DisplayName("Test save route with conflict")
+    @Test
+    void testSaveWithConflict() {
+        when(service.save(any(UserRequest.class))).thenReturn(Mono.error(new DuplicateUserException(DuplicateUserException.EMAIL_KEY)));
+
+        webTestClient.post()
+                .uri(BASE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserRequest(NAME, EMAIL, PASSWORD)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("E-mail already registered");
+    }
+
+    @DisplayName("Test find by id route with ETag, 304 and 404")
+    @Test
+    void testFindById() {
+        when(service.findById(ID)).thenReturn(Mono.just(User.builder().id(ID).version(7L).build()));
+        when(service.findById("456")).thenReturn(Mono.error(new ObjectNotFoundException("Object not found. Id: 456, Type: User")));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID).concat("?fields=summary"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-7-n\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(NAME)
+                .jsonPath("$.email").doesNotExist();
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"123-7\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/456"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Object not found. Id: 456, Type: User");
+
+        verify(mapper, times(1)).toResponse(any(User.class));
+    }
+
+    @DisplayName("Test find by id route with invalid fields")
+    @Test
+    void testFindByIdWithInvalidFields() {
+        webTestClient.get()
+                .uri(BASE_URI.concat("/").concat(ID).concat("?fields=password"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid field: password");
+
+        verify(service, never()).findById(anyString());
+    }
+
+    @DisplayName("Test search route maps errors raised before the first item")
+    @Test
+    void testSearchWithInvalidQuery() {
+        when(service.search(anyString(), any(), any(), anyInt(), any()))
+                .thenReturn(Flux.error(new InvalidSearchException("Search query must not be blank")));
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("/search?q= "))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Search query must not be blank");
+    }
+
+    @DisplayName("Test lookup route with success and validation error")
+    @Test
+    void testLookup() {
+        when(service.findAllById(anyList())).thenReturn(Mono.just(Map.of(ID, User.builder().id(ID).build())));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL));
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/lookup"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserLookupRequest(List.of("456", ID))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.[0].status").isEqualTo(NOT_FOUND.value())
+                .jsonPath("$.[1].user.name").isEqualTo(NAME);
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/lookup"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new UserLookupRequest(List.of())))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0].fieldName").isEqualTo("ids");
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/lookup"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"ids\":[null]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0].fieldName").isEqualTo("ids[0].<list element>");
+
+        verify(service, times(1)).findAllById(anyList());
+    }
+
+    @DisplayName("Test find all route with JSON page and NDJSON stream")
+    @Test
+    void testFindAllAndStream() {
+        final String id = new ObjectId().toHexString();
+        final UserResponse userResponse = new UserResponse(id, NAME, EMAIL);
+        when(service.findPage(isNull(), eq(1), eq(UserFields.ALL))).thenReturn(Flux.just(User.builder().build()));
+        when(service.findAll(UserFields.ALL)).thenReturn(Flux.just(User.builder().build(), User.builder().build()));
+        when(mapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        webTestClient.get()
+                .uri(BASE_URI.concat("?limit=1"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(UserControllerImpl.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1);
+
+        Flux<UserResponse> body = webTestClient.get()
+                .uri(BASE_URI)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserResponse.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .expectNext(userResponse, userResponse)
+                .expectComplete()
+                .verify();
+    }
+
+    @DisplayName("Test export route output is accepted by the import route")
+    @Test
+    void testExportAndImport() {
+        final UserDocument document = new UserDocument(ID, NAME, EMAIL, "hash", 1L);
+        when(service.export()).thenReturn(Flux.just(User.builder().build(), User.builder().build()));
+        when(mapper.toDocument(any(User.class))).thenReturn(document);
+        when(service.importAll(any())).thenAnswer(invocation -> invocation.<Flux<UserDocument>>getArgument(0)
+                .filter(document::equals)
+                .count()
+                .map(count -> new UserImportResponse(count, 0, List.of())));
+
+        final byte[] archive = webTestClient.get()
+                .uri(BASE_URI.concat("/export"))
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(UserArchive.MEDIA_TYPE)
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/import"))
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(UserArchive.MEDIA_TYPE)
+                .bodyValue(archive)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(0);
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/import"))
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(UserArchive.MEDIA_TYPE)
+                .bodyValue(Arrays.copyOf(archive, archive.length - 4))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("Test export and import routes require the archive token")
+    @Test
+    void testArchiveRoutesRequireToken() {
+        webTestClient.get()
+                .uri(BASE_URI.concat("/export"))
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Archive access denied");
+
+        webTestClient.post()
+                .uri(BASE_URI.concat("/import"))
+                .headers(headers -> headers.setBearerAuth("wrong"))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{}\n")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verify(service, never()).export();
+        verify(service, never()).importAll(any());
+    }
+
+    @DisplayName("Test update route with If-Match")
+    @Test
+    void testUpdateWithIfMatch() {
+        when(service.update(anyString(), any(UserRequest.class), eq(2L))).thenReturn(Mono.just(User.builder().id(ID).version(3L).build()));
+        when(service.update(anyString(), any(UserRequest.class), eq(1L)))
+                .thenReturn(Mono.error(new PreconditionFailedException("Version mismatch. Id: 123, expected: 1, current: 3")));
+        when(mapper.toResponse(any(User.class))).thenReturn(new UserResponse(ID, NAME, EMAIL));
+
+        webTestClient.patch()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"123-2\"")
+                .body(BodyInserters.fromValue(new UserRequest(NAME, null, null)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-3\"");
+
+        webTestClient.patch()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"123-1\"")
+                .body(BodyInserters.fromValue(new UserRequest(NAME, null, null)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @DisplayName("Test delete route with success")
+    @Test
+    void testDelete() {
+        when(service.delete(anyString())).thenReturn(Mono.just(User.builder().build()));
+
+        webTestClient.delete()
+                .uri(BASE_URI.concat("/").concat(ID))
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(service, times(1)).delete(ID);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.github.erf88.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class LatencyRecorder {
+
+    private final long[] latencies;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong errors = new AtomicLong();
+
+    LatencyRecorder(int capacity) {
+        this.latencies = new long[capacity];
+    }
+
+    void record(long nanos, boolean success) {
+        int index = count.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = nanos;
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    LoadReport report(String scenario, Duration elapsed) {
+        int recorded = Math.min(count.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        return new LoadReport(
+                scenario,
+                recorded,
+                errors.get(),
+                elapsed.toMillis(),
+                recorded / Math.max(elapsed.toNanos() / 1e9, 1e-9),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+}
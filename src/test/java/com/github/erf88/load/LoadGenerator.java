@@ -0,0 +1,233 @@
+package com.github.erf88.load;
+
+import com.github.erf88.model.request.UserLookupRequest;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.BatchItemResponse;
+import com.github.erf88.service.UserFields;
+import com.github.erf88.service.UserService;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+class LoadGenerator {
+
+    private final WebClient client;
+    private final String run = Long.toString(System.nanoTime(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    LoadGenerator(WebClient client) {
+        this.client = client;
+    }
+
+    LoadReport run(String scenario, int requests, int concurrency, Supplier<Mono<?>> operation) {
+        final LatencyRecorder recorder = new LatencyRecorder(requests);
+        final long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> timed(operation, recorder), concurrency)
+                .blockLast();
+        return recorder.report(scenario, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    Mono<?> create() {
+        return client.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(newRequest())
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    Mono<?> createBatch(int size) {
+        return client.post()
+                .uri("/users/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(Flux.range(0, size).map(i -> newRequest()), UserRequest.class)
+                .retrieve()
+                .bodyToFlux(BatchItemResponse.class)
+                .filter(item -> item.id() != null)
+                .doOnNext(item -> add(item.id()))
+                .then();
+    }
+
+    Mono<?> read() {
+        return client.get()
+                .uri("/users/{id}", randomId())
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    // Captures the ETag each seeded user is currently served with, so readNotModified replays a value the API really issued.
+    void captureETags() {
+        Flux.fromIterable(snapshotIds())
+                .flatMap(id -> client.get()
+                        .uri("/users/{id}", id)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .doOnNext(entity -> etags.put(id, entity.getHeaders().getETag())), 64)
+                .blockLast();
+    }
+
+    // Anything but a 304 is an error, so the report's error count is the share of conditional reads that missed.
+    Mono<?> readNotModified() {
+        final String id = randomId();
+        final String etag = etags.get(id);
+        if (etag == null) {
+            return Mono.error(new IllegalStateException("No ETag captured for " + id));
+        }
+        return client.get()
+                .uri("/users/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchangeToMono(response -> response.statusCode().value() == 304
+                        ? response.releaseBody()
+                        : response.createError());
+    }
+
+    Mono<?> readMissing() {
+        return client.get()
+                .uri("/users/{id}", new ObjectId().toHexString())
+                .exchangeToMono(response -> response.statusCode().value() == 404
+                        ? response.releaseBody()
+                        : response.createError());
+    }
+
+    Mono<?> readEach(int size) {
+        return Flux.range(0, size)
+                .flatMap(i -> read())
+                .then();
+    }
+
+    Mono<?> lookup(int size) {
+        return client.post()
+                .uri("/users/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserLookupRequest(randomIds(size)))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    Mono<?> list(String fields) {
+        return client.get()
+                .uri(uri -> uri.path("/users")
+                        .queryParam("limit", UserService.MAX_PAGE_SIZE)
+                        .queryParamIfPresent("fields", Optional.ofNullable(fields))
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    Mono<?> stream(String fields) {
+        return client.get()
+                .uri(uri -> uri.path("/users")
+                        .queryParamIfPresent("fields", Optional.ofNullable(fields))
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    Mono<?> search(String mode) {
+        return client.get()
+                .uri(uri -> uri.path("/users/search")
+                        .queryParam("q", "user " + ThreadLocalRandom.current().nextInt(1, 100))
+                        .queryParam("mode", mode)
+                        .queryParam("fields", UserFields.SUMMARY_VIEW)
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    Mono<?> update() {
+        return client.patch()
+                .uri("/users/{id}", randomId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserRequest("renamed " + sequence.incrementAndGet() % 1000, null, null))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    Mono<?> delete() {
+        return client.delete()
+                .uri("/users/{id}", takeId())
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    Mono<?> mixed() {
+        final int dice = ThreadLocalRandom.current().nextInt(100);
+        if (dice < 20) {
+            return create();
+        } else if (dice < 80) {
+            return read();
+        } else if (dice < 95) {
+            return update();
+        }
+        return delete();
+    }
+
+    void seed(int count) {
+        final int chunk = 500;
+        Flux.range(0, (count + chunk - 1) / chunk)
+                .concatMap(i -> createBatch(Math.min(chunk, count - i * chunk)))
+                .blockLast();
+    }
+
+    private UserRequest newRequest() {
+        final long n = sequence.incrementAndGet();
+        return new UserRequest("user " + n, "user-%s-%d@load.test".formatted(run, n), "secret" + n % 1000);
+    }
+
+    private synchronized void add(String id) {
+        ids.add(id);
+    }
+
+    private synchronized List<String> snapshotIds() {
+        return List.copyOf(ids);
+    }
+
+    private synchronized String randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private synchronized List<String> randomIds(int size) {
+        final List<String> sample = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sample.add(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+        }
+        return sample;
+    }
+
+    private synchronized String takeId() {
+        final int index = ThreadLocalRandom.current().nextInt(ids.size());
+        final String id = ids.get(index);
+        ids.set(index, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+        return id;
+    }
+
+    private static Mono<?> timed(Supplier<Mono<?>> operation, LatencyRecorder recorder) {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            return operation.get()
+                    .then(Mono.fromRunnable(() -> recorder.record(System.nanoTime() - start, true)))
+                    .onErrorResume(ex -> Mono.fromRunnable(() -> recorder.record(System.nanoTime() - start, false)));
+        });
+    }
+
+}
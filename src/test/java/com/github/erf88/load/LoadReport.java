@@ -0,0 +1,39 @@
+package com.github.erf88.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+record LoadReport(
+        String scenario,
+        long requests,
+        long errors,
+        long elapsedMillis,
+        double throughput,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+) {
+
+    LoadReport named(String name) {
+        return new LoadReport(name, requests, errors, elapsedMillis, throughput, p50Millis, p99Millis, p999Millis, maxMillis);
+    }
+
+    static void write(String file, List<LoadReport> reports) throws IOException {
+        reports.forEach(System.out::println);
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", file).toFile(), reports);
+    }
+
+    @Override
+    public String toString() {
+        return "%-32s %8d req %6d err %10.1f req/s   p50 %8.2f ms   p99 %8.2f ms   p99.9 %8.2f ms   max %8.2f ms"
+                .formatted(scenario, requests, errors, throughput, p50Millis, p99Millis, p999Millis, maxMillis);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.github.erf88.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+record PaginationReport(
+        long documents,
+        long pages,
+        long maxDocumentsPerQuery,
+        long retainedHeapBytes,
+        long elapsedMillis,
+        double p99Millis
+) {
+
+    static void write(String file, List<PaginationReport> reports) throws IOException {
+        reports.forEach(System.out::println);
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", file).toFile(), reports);
+    }
+
+    @Override
+    public String toString() {
+        return "%10d docs %8d pages %6d max docs/query %8.2f MB retained heap %8d ms   p99 %8.2f ms"
+                .formatted(documents, pages, maxDocumentsPerQuery, retainedHeapBytes / (1024.0 * 1024), elapsedMillis, p99Millis);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.github.erf88.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+record TransferReport(
+        String scenario,
+        long documents,
+        long bytes,
+        long elapsedMillis,
+        double documentsPerSecond,
+        double megabytesPerSecond
+) {
+
+    static TransferReport of(String scenario, long documents, long bytes, long elapsedNanos) {
+        final double seconds = elapsedNanos / 1e9;
+        return new TransferReport(scenario, documents, bytes, elapsedNanos / 1_000_000, documents / seconds, bytes / seconds / (1024 * 1024));
+    }
+
+    static void write(String file, List<TransferReport> reports) throws IOException {
+        reports.forEach(System.out::println);
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", file).toFile(), reports);
+    }
+
+    @Override
+    public String toString() {
+        return "%-32s %10d docs %12d bytes %8d ms %12.1f docs/s %8.2f MB/s"
+                .formatted(scenario, documents, bytes, elapsedMillis, documentsPerSecond, megabytesPerSecond);
+    }
+
+}
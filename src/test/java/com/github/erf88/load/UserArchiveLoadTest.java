@@ -0,0 +1,139 @@
+package com.github.erf88.load;
+
+import com.github.erf88.EmbeddedMongoConfiguration;
+import com.github.erf88.codec.UserArchive;
+import com.github.erf88.entity.User;
+import com.github.erf88.model.response.UserImportResponse;
+import com.github.erf88.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("load")
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "users.archive.token=" + UserArchiveLoadTest.TOKEN)
+@Import(EmbeddedMongoConfiguration.class)
+class UserArchiveLoadTest {
+
+    static final String TOKEN = "load-archive-token";
+
+    private static final int DOCUMENTS = Integer.getInteger("load.documents", 100_000);
+    private static final int SEED_CHUNK = 1_000;
+    private static final int READ_BUFFER = 64 * 1024;
+    private static final String HASH_ALPHABET = "./ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final List<TransferReport> REPORTS = new CopyOnWriteArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        TransferReport.write("load-report-archive.json", REPORTS);
+    }
+
+    @Test
+    void exportImportRoundTrip(@TempDir Path directory) throws IOException {
+        final WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))
+                .build();
+        final Path archive = directory.resolve("users.ndjson.gz");
+        seed();
+
+        final long exportStart = System.nanoTime();
+        DataBufferUtils.write(client.get()
+                .uri("/users/export")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class), archive).block();
+        final long exportElapsed = System.nanoTime() - exportStart;
+        final long bytes = Files.size(archive);
+        try (InputStream input = Files.newInputStream(archive)) {
+            assertArrayEquals(new byte[] { 0x1f, (byte) 0x8b }, input.readNBytes(2));
+        }
+        REPORTS.add(TransferReport.of("export (gzip ndjson)", DOCUMENTS, bytes, exportElapsed));
+
+        final List<User> sample = sample();
+        mongoTemplate.remove(new Query(), User.class).block();
+        assertEquals(0L, repository.count(null).block());
+
+        final long importStart = System.nanoTime();
+        final UserImportResponse result = client.post()
+                .uri("/users/import")
+                .headers(headers -> headers.setBearerAuth(TOKEN))
+                .contentType(UserArchive.MEDIA_TYPE)
+                .body(DataBufferUtils.read(archive, DefaultDataBufferFactory.sharedInstance, READ_BUFFER), DataBuffer.class)
+                .retrieve()
+                .bodyToMono(UserImportResponse.class)
+                .block();
+        final long importElapsed = System.nanoTime() - importStart;
+        REPORTS.add(TransferReport.of("import (gzip ndjson)", DOCUMENTS, bytes, importElapsed));
+        REPORTS.add(TransferReport.of("round trip", DOCUMENTS, 2 * bytes, exportElapsed + importElapsed));
+
+        assertEquals(new UserImportResponse(DOCUMENTS, 0, List.of()), result);
+        assertEquals(DOCUMENTS, repository.count(null).block());
+        assertEquals(sample, sample());
+    }
+
+    // Every hundredth user, read straight from the collection so ids, versions and hashes are compared as stored.
+    private List<User> sample() {
+        return IntStream.range(0, 100)
+                .mapToObj(i -> mongoTemplate.findOne(Query.query(Criteria.where("email").is("user-%d@archive.test".formatted(i * DOCUMENTS / 100))), User.class)
+                        .block())
+                .toList();
+    }
+
+    private void seed() {
+        Flux.range(0, (DOCUMENTS + SEED_CHUNK - 1) / SEED_CHUNK)
+                .concatMap(chunk -> repository.insertAll(IntStream.range(chunk * SEED_CHUNK, Math.min(DOCUMENTS, (chunk + 1) * SEED_CHUNK))
+                        .mapToObj(i -> User.builder().name("user " + i).email("user-%d@archive.test".formatted(i)).password(hash(i)).version((long) i % 7).build())
+                        .toList()))
+                .doOnNext(errors -> assertEquals(List.of(), errors))
+                .blockLast();
+    }
+
+    private static String hash(int seed) {
+        final Random random = new Random(seed);
+        final StringBuilder hash = new StringBuilder("$2a$10$");
+        for (int i = 0; i < 53; i++) {
+            hash.append(HASH_ALPHABET.charAt(random.nextInt(HASH_ALPHABET.length())));
+        }
+        return hash.toString();
+    }
+
+}
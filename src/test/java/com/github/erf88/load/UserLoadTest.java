@@ -0,0 +1,108 @@
+package com.github.erf88.load;
+
+import com.github.erf88.EmbeddedMongoConfiguration;
+import com.github.erf88.service.UserFields;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("load")
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@Import(EmbeddedMongoConfiguration.class)
+class UserLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int SEED = Integer.getInteger("load.seed", 1_000);
+    private static final List<LoadReport> REPORTS = new CopyOnWriteArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    private LoadGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new LoadGenerator(WebClient.create("http://localhost:" + port));
+        generator.seed(SEED);
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        LoadReport.write("load-report.json", REPORTS);
+    }
+
+    @Test
+    void mixedCrudWorkload() {
+        LoadReport report = generator.run("mixed crud (20/60/15/5)", REQUESTS, CONCURRENCY, generator::mixed);
+        REPORTS.add(report);
+        assertEquals(REQUESTS, report.requests());
+    }
+
+    @Test
+    void readOnlyWorkload() {
+        REPORTS.add(generator.run("read by id", REQUESTS, CONCURRENCY, generator::read));
+    }
+
+    @Test
+    void conditionalReadWorkload() {
+        REPORTS.add(generator.run("read by id (200)", REQUESTS, CONCURRENCY, generator::read));
+        generator.captureETags();
+        LoadReport notModified = generator.run("read by id (If-None-Match, 304)", REQUESTS, CONCURRENCY, generator::readNotModified);
+        REPORTS.add(notModified);
+        assertEquals(REQUESTS, notModified.requests());
+        assertEquals(0, notModified.errors(), "conditional reads not answered with 304");
+    }
+
+    @Test
+    void notFoundHeavyWorkload() {
+        REPORTS.add(generator.run("read unknown id (404)", REQUESTS, CONCURRENCY, generator::readMissing));
+    }
+
+    @Test
+    void fanOutReadsVersusBatchLookup() {
+        final int hydrations = Math.max(REQUESTS / 50, 20);
+        final int size = 50;
+        REPORTS.add(generator.run("hydrate " + size + " by GET /{id}", hydrations, CONCURRENCY / size + 1, () -> generator.readEach(size)));
+        REPORTS.add(generator.run("hydrate " + size + " by lookup", hydrations, CONCURRENCY / size + 1, () -> generator.lookup(size)));
+    }
+
+    @Test
+    void fullVersusSummaryListings() {
+        final int pages = Math.max(REQUESTS / 10, 100);
+        REPORTS.add(generator.run("list page (all fields)", pages, CONCURRENCY, () -> generator.list(null)));
+        REPORTS.add(generator.run("list page (summary)", pages, CONCURRENCY, () -> generator.list(UserFields.SUMMARY_VIEW)));
+        REPORTS.add(generator.run("stream all (all fields)", 10, 1, () -> generator.stream(null)));
+        REPORTS.add(generator.run("stream all (summary)", 10, 1, () -> generator.stream(UserFields.SUMMARY_VIEW)));
+    }
+
+    @Test
+    void searchByNamePrefix() {
+        REPORTS.add(generator.run("search name prefix", REQUESTS, CONCURRENCY, () -> generator.search("prefix")));
+    }
+
+    @Test
+    void singleSaveVersusBatchInsert() {
+        final int users = Math.max(REQUESTS / 10, 500);
+        final int batchSize = 500;
+        REPORTS.add(generator.run("create one by one", users, CONCURRENCY, generator::create));
+        LoadReport batch = generator.run("create in batches of " + batchSize, users / batchSize, 1, () -> generator.createBatch(batchSize));
+        REPORTS.add(new LoadReport(batch.scenario() + " (per user)", users, batch.errors(), batch.elapsedMillis(),
+                users / (batch.elapsedMillis() / 1000.0), batch.p50Millis(), batch.p99Millis(), batch.p999Millis(), batch.maxMillis()));
+    }
+
+}
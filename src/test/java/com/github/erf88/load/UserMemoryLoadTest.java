@@ -0,0 +1,65 @@
+package com.github.erf88.load;
+
+import com.github.erf88.repository.InMemoryUserRepository;
+import com.github.erf88.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("load")
+@ActiveProfiles(InMemoryUserRepository.PROFILE)
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "users.password.strength=4")
+class UserMemoryLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int SEED = Integer.getInteger("load.seed", 1_000);
+    private static final List<LoadReport> REPORTS = new CopyOnWriteArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository repository;
+
+    private LoadGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        assertInstanceOf(InMemoryUserRepository.class, repository);
+        generator = new LoadGenerator(WebClient.create("http://localhost:" + port));
+        generator.seed(SEED);
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        LoadReport.write("load-report-memory.json", REPORTS);
+    }
+
+    @Test
+    void mixedCrudWorkload() {
+        LoadReport report = generator.run("mixed crud (20/60/15/5, memory)", REQUESTS, CONCURRENCY, generator::mixed);
+        REPORTS.add(report);
+        assertEquals(REQUESTS, report.requests());
+    }
+
+    @Test
+    void readOnlyWorkload() {
+        REPORTS.add(generator.run("read by id (memory)", REQUESTS, CONCURRENCY, generator::read));
+    }
+
+}
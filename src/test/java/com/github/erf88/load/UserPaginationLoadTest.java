@@ -0,0 +1,152 @@
+package com.github.erf88.load;
+
+import com.github.erf88.EmbeddedMongoConfiguration;
+import com.github.erf88.controller.impl.UserControllerImpl;
+import com.github.erf88.entity.User;
+import com.github.erf88.model.response.UserResponse;
+import com.github.erf88.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("load")
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@Import(EmbeddedMongoConfiguration.class)
+class UserPaginationLoadTest {
+
+    private static final int[] SIZES = Arrays.stream(System.getProperty("load.page-sizes", "2000,20000,100000").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    private static final int LIMIT = 100;
+    private static final int SEED_CHUNK = 1_000;
+    private static final List<PaginationReport> REPORTS = new CopyOnWriteArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository repository;
+
+    @SpyBean
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private final AtomicLong maxDocumentsPerQuery = new AtomicLong();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            final AtomicLong documents = new AtomicLong();
+            return ((Flux<?>) invocation.callRealMethod())
+                    .doOnNext(document -> documents.incrementAndGet())
+                    .doFinally(signal -> maxDocumentsPerQuery.accumulateAndGet(documents.get(), Math::max));
+        }).when(mongoTemplate).find(any(Query.class), eq(User.class));
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        PaginationReport.write("load-report-pagination.json", REPORTS);
+    }
+
+    // Pages through a growing collection and checks that no query reads more than one page, whatever the collection size.
+    // The heap retained halfway through each walk is reported alongside, measured after a GC against the walk's baseline.
+    @Test
+    void pageThroughGrowingCollection() {
+        final WebClient client = WebClient.create("http://localhost:" + port);
+        int seeded = 0;
+        for (int size : SIZES) {
+            seed(seeded, size);
+            seeded = size;
+            maxDocumentsPerQuery.set(0);
+            REPORTS.add(pageThrough(client, size));
+        }
+
+        REPORTS.forEach(report -> assertEquals(LIMIT, report.maxDocumentsPerQuery(), report.toString()));
+    }
+
+    private PaginationReport pageThrough(final WebClient client, final int size) {
+        final LatencyRecorder recorder = new LatencyRecorder(size / LIMIT + 1);
+        final long baseline = usedHeapAfterGc();
+        final Set<String> ids = new HashSet<>();
+        long retained = 0;
+        long documents = 0;
+        String after = null;
+        final long start = System.nanoTime();
+        do {
+            final long requestStart = System.nanoTime();
+            final String cursor = after;
+            final ResponseEntity<List<UserResponse>> page = client.get()
+                    .uri(uri -> uri.path("/users")
+                            .queryParam("limit", LIMIT)
+                            .queryParamIfPresent("after", Optional.ofNullable(cursor))
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .toEntityList(UserResponse.class)
+                    .block();
+            recorder.record(System.nanoTime() - requestStart, true);
+            assertTrue(page.getBody().size() <= LIMIT);
+            documents += page.getBody().size();
+            page.getBody().forEach(user -> ids.add(user.id()));
+            if (documents == size / 2 / LIMIT * LIMIT) {
+                retained = usedHeapAfterGc() - baseline;
+            }
+            after = page.getHeaders().getFirst(UserControllerImpl.NEXT_CURSOR_HEADER);
+        } while (after != null);
+        final LoadReport latency = recorder.report("page through " + size, Duration.ofNanos(System.nanoTime() - start));
+
+        assertEquals(size, documents);
+        assertEquals(size, ids.size());
+        return new PaginationReport(size, latency.requests(), maxDocumentsPerQuery.get(), retained,
+                latency.elapsedMillis(), latency.p99Millis());
+    }
+
+    private void seed(final int from, final int to) {
+        Flux.range(0, (to - from + SEED_CHUNK - 1) / SEED_CHUNK)
+                .concatMap(chunk -> repository.insertAll(IntStream.range(from + chunk * SEED_CHUNK, Math.min(to, from + (chunk + 1) * SEED_CHUNK))
+                        .mapToObj(i -> User.builder().name("user " + i).email("user-%d@page.test".formatted(i)).password("hash").build())
+                        .toList()))
+                .doOnNext(errors -> assertEquals(List.of(), errors))
+                .blockLast();
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.github.erf88.load;
+
+import com.github.erf88.EmbeddedMongoConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+// The embedded profile lowers the bcrypt strength to keep the other suites fast; signups are measured at the production default.
+@Tag("load")
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "users.password.strength=10")
+@Import(EmbeddedMongoConfiguration.class)
+class UserSignupLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int SEED = Integer.getInteger("load.seed", 1_000);
+    private static final List<LoadReport> REPORTS = new CopyOnWriteArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    private LoadGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new LoadGenerator(WebClient.create("http://localhost:" + port));
+        generator.seed(SEED);
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        LoadReport.write("load-report-signup.json", REPORTS);
+    }
+
+    @Test
+    void readLatencyDuringSignupBurst() {
+        REPORTS.add(generator.run("read by id (idle)", REQUESTS, CONCURRENCY, generator::read));
+        Mono<LoadReport> signups = Mono.fromCallable(() -> generator.run("signup burst", REQUESTS / 10, CONCURRENCY, generator::create))
+                .subscribeOn(Schedulers.boundedElastic());
+        Mono<LoadReport> reads = Mono.fromCallable(() -> generator.run("read by id (during signups)", REQUESTS, CONCURRENCY, generator::read))
+                .subscribeOn(Schedulers.boundedElastic());
+        Mono.zip(signups, reads)
+                .doOnNext(reports -> {
+                    REPORTS.add(reports.getT1());
+                    REPORTS.add(reports.getT2());
+                })
+                .block();
+    }
+
+}
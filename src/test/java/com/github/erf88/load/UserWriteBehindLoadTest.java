@@ -0,0 +1,84 @@
+package com.github.erf88.load;
+
+import com.github.erf88.EmbeddedMongoConfiguration;
+import com.github.erf88.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("load")
+@ActiveProfiles("embedded")
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@Import(EmbeddedMongoConfiguration.class)
+class UserWriteBehindLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 256);
+    private static final int SEED = Integer.getInteger("load.seed", 100);
+    private static final List<LoadReport> REPORTS = new CopyOnWriteArrayList<>();
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        LoadReport.write("load-report-write-behind.json", REPORTS);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "users.write-behind.enabled=false")
+    class Direct {
+
+        @Test
+        void signupBurst(@LocalServerPort int port, @Autowired MeterRegistry registry) {
+            REPORTS.add(signupLoad("signup burst (direct)", port, registry));
+        }
+
+    }
+
+    @Nested
+    @TestPropertySource(properties = "users.write-behind.enabled=true")
+    class WriteBehind {
+
+        @Test
+        void signupBurst(@LocalServerPort int port, @Autowired MeterRegistry registry) {
+            REPORTS.add(signupLoad("signup burst (write-behind)", port, registry));
+        }
+
+    }
+
+    private static LoadReport signupLoad(String scenario, int port, MeterRegistry registry) {
+        final LoadGenerator generator = new LoadGenerator(WebClient.create("http://localhost:" + port));
+        generator.seed(SEED);
+        generator.run("warm-up", REQUESTS / 10, CONCURRENCY, generator::create);
+        final long before = writes(registry);
+        final LoadReport report = generator.run(scenario, REQUESTS, CONCURRENCY, generator::create);
+        final long writes = writes(registry) - before;
+        return report.named("%s, %d writes, %.0f writes/s".formatted(scenario, writes, writes / (report.elapsedMillis() / 1000.0)));
+    }
+
+    private static long writes(MeterRegistry registry) {
+        return registry.find(UserRepository.METRIC_NAME)
+                .timers()
+                .stream()
+                .filter(timer -> List.of("save", "insertAll").contains(timer.getId().getTag("method")))
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+}
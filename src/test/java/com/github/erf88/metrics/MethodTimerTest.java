@@ -0,0 +1,48 @@
+package com.github.erf88.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MethodTimerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MethodTimer timer = new MethodTimer("test.timer", registry);
+
+    @Test
+    void testMonoOutcomesAreTagged() {
+        StepVerifier.create(timer.time("find", Mono.just("value"))).expectNext("value").verifyComplete();
+        StepVerifier.create(timer.time("find", Mono.empty())).verifyComplete();
+        StepVerifier.create(timer.time("find", Mono.error(new DuplicateKeyException("dup"))))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+
+        assertEquals(1, count("find", MethodTimer.SUCCESS, "none"));
+        assertEquals(1, count("find", MethodTimer.EMPTY, "none"));
+        assertEquals(1, count("find", MethodTimer.ERROR, "DuplicateKeyException"));
+    }
+
+    @Test
+    void testFluxIsTimedOncePerSubscription() {
+        final Flux<Integer> source = timer.time("stream", Flux.range(0, 100));
+
+        StepVerifier.create(source).expectNextCount(100).verifyComplete();
+        StepVerifier.create(source.take(10)).expectNextCount(10).verifyComplete();
+
+        assertEquals(1, count("stream", MethodTimer.SUCCESS, "none"));
+        assertEquals(1, count("stream", MethodTimer.CANCELLED, "none"));
+    }
+
+    private long count(String method, String outcome, String exception) {
+        return registry.get("test.timer")
+                .tags("method", method, "outcome", outcome, "exception", exception)
+                .timer()
+                .count();
+    }
+
+}
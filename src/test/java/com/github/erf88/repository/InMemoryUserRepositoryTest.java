@@ -0,0 +1,173 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.entity.User;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.service.exception.DuplicateUserException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InMemoryUserRepositoryTest {
+
+    private final InMemoryUserRepository repository = new InMemoryUserRepository(new SimpleMeterRegistry());
+
+    @Test
+    void testSaveAndFindByIdWithLookupProjection() {
+        final User user = repository.save(user("usuario", "usuario@email.com")).block();
+
+        assertEquals(0L, user.getVersion());
+        StepVerifier.create(repository.findById(user.getId()))
+                .assertNext(found -> {
+                    assertEquals("usuario", found.getName());
+                    assertEquals("usuario@email.com", found.getEmail());
+                    assertNull(found.getPassword());
+                })
+                .verifyComplete();
+        StepVerifier.create(repository.findById(new ObjectId().toHexString())).verifyComplete();
+    }
+
+    @Test
+    void testSaveWithDuplicateEmailAndStaleVersion() {
+        final User user = repository.save(user("usuario", "usuario@email.com")).block();
+
+        StepVerifier.create(repository.save(user("outro", "usuario@email.com")))
+                .expectErrorSatisfies(ex -> assertEquals(DuplicateUserException.EMAIL_KEY, ((DuplicateUserException) ex).getKey()))
+                .verify();
+
+        user.setName("renamed");
+        StepVerifier.create(repository.save(user)).expectNextMatches(saved -> saved.getVersion() == 1L).verifyComplete();
+        user.setVersion(0L);
+        StepVerifier.create(repository.save(user)).expectError(OptimisticLockingFailureException.class).verify();
+    }
+
+    @Test
+    void testCaseVariantEmailIsDuplicate() {
+        final User user = repository.save(user("usuario", "Alice@Email.com")).block();
+
+        StepVerifier.create(repository.save(user("outro", "alice@email.com")))
+                .expectErrorSatisfies(ex -> assertEquals(DuplicateUserException.EMAIL_KEY, ((DuplicateUserException) ex).getKey()))
+                .verify();
+        StepVerifier.create(repository.insertIfAbsent(user("outro", "ALICE@email.com"))).expectNext(false).verifyComplete();
+        StepVerifier.create(repository.findByEmail("alice@EMAIL.com")).expectNextMatches(found -> user.getId().equals(found.getId())).verifyComplete();
+        StepVerifier.create(repository.patch(user.getId(), new UserRequest(null, "alice@email.com", null), 0L))
+                .expectNextMatches(patched -> "alice@email.com".equals(patched.getEmail()))
+                .verifyComplete();
+        StepVerifier.create(repository.findByEmail("Alice@Email.com")).expectNextMatches(found -> user.getId().equals(found.getId())).verifyComplete();
+    }
+
+    @Test
+    void testConcurrentSavesKeepEmailUnique() {
+        final Long saved = Flux.range(0, 64)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> repository.save(user("usuario " + i, "same@email.com"))
+                        .map(u -> 1L)
+                        .onErrorReturn(DuplicateUserException.class, 0L))
+                .sequential()
+                .reduce(0L, Long::sum)
+                .block();
+
+        assertEquals(1L, saved);
+        assertEquals(1L, repository.estimatedCount().block());
+    }
+
+    @Test
+    void testFindAllIteratesSnapshotTakenAtSubscription() {
+        final User kept = repository.save(user("kept", "kept@email.com")).block();
+        final User removed = repository.save(user("removed", "removed@email.com")).block();
+
+        StepVerifier.create(repository.findAll("name"), 0)
+                .then(() -> {
+                    repository.findAndRemove(removed.getId()).block();
+                    repository.save(user("added", "added@email.com")).block();
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .recordWith(ArrayList::new)
+                .expectNextCount(2)
+                .consumeRecordedWith(users -> assertEquals(Set.of(kept.getId(), removed.getId()),
+                        users.stream().map(User::getId).collect(Collectors.toSet())))
+                .verifyComplete();
+    }
+
+    @Test
+    void testInsertIfAbsentAndInsertAll() {
+        StepVerifier.create(repository.insertIfAbsent(user("usuario", "usuario@email.com"))).expectNext(true).verifyComplete();
+        StepVerifier.create(repository.insertIfAbsent(user("outro", "usuario@email.com"))).expectNext(false).verifyComplete();
+
+        StepVerifier.create(repository.insertAll(List.of(user("a", "a@email.com"), user("b", "usuario@email.com"), user("c", "a@email.com"))))
+                .assertNext(errors -> {
+                    assertEquals(List.of(1, 2), errors.stream().map(error -> error.getIndex()).toList());
+                    assertEquals(DuplicateUserException.EMAIL_KEY, DuplicateKeys.translate(errors.get(0)).getKey());
+                })
+                .verifyComplete();
+        assertEquals(2L, repository.estimatedCount().block());
+    }
+
+    @Test
+    void testPatchWithVersionAndEmailChange() {
+        final User user = repository.save(user("usuario", "usuario@email.com")).block();
+        repository.save(user("outro", "outro@email.com")).block();
+
+        StepVerifier.create(repository.patch(user.getId(), new UserRequest(null, "novo@email.com", null), 5L)).verifyComplete();
+        StepVerifier.create(repository.patch(user.getId(), new UserRequest(null, "outro@email.com", null), 0L))
+                .expectError(DuplicateUserException.class)
+                .verify();
+        StepVerifier.create(repository.patch(user.getId(), new UserRequest("renamed", "Novo@Email.com", null), 0L))
+                .expectNextMatches(patched -> patched.getVersion() == 1L && "renamed".equals(patched.getName()))
+                .verifyComplete();
+
+        StepVerifier.create(repository.findByEmail("novo@email.com")).expectNextMatches(found -> user.getId().equals(found.getId())).verifyComplete();
+        StepVerifier.create(repository.insertIfAbsent(user("x", "usuario@email.com"))).expectNext(true).verifyComplete();
+        StepVerifier.create(repository.count("renamed")).expectNext(1L).verifyComplete();
+        StepVerifier.create(repository.count("usuario")).expectNext(0L).verifyComplete();
+    }
+
+    @Test
+    void testFindAndRemoveReleasesIndexes() {
+        final User user = repository.save(user("usuario", "usuario@email.com")).block();
+
+        StepVerifier.create(repository.findAndRemove(user.getId())).expectNextMatches(removed -> "usuario".equals(removed.getName())).verifyComplete();
+        StepVerifier.create(repository.findByEmail("usuario@email.com")).verifyComplete();
+        StepVerifier.create(repository.count("usu")).expectNext(0L).verifyComplete();
+        StepVerifier.create(repository.save(user("usuario", "usuario@email.com"))).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void testFindPageAndSearchUseKeysetOrder() {
+        Flux.range(0, 10).concatMap(i -> repository.save(user("user " + (9 - i), "user-%d@email.com".formatted(i)))).blockLast();
+
+        final List<User> first = repository.findPage(null, 4, "name").collectList().block();
+        final List<User> next = repository.findPage(first.get(3).getId(), 100, "name").collectList().block();
+        assertEquals(4, first.size());
+        assertEquals(6, next.size());
+        assertEquals(List.of("user 9", "user 8", "user 7", "user 6"), first.stream().map(User::getName).toList());
+
+        final List<User> prefix = repository.searchByNamePrefix("user ", null, null, 3).collectList().block();
+        assertEquals(List.of("user 0", "user 1", "user 2"), prefix.stream().map(User::getName).toList());
+        final User last = prefix.get(2);
+        StepVerifier.create(repository.searchByNamePrefix("user ", last.getName(), last.getId(), 2).map(User::getName))
+                .expectNext("user 3", "user 4")
+                .verifyComplete();
+
+        StepVerifier.create(repository.searchText("3 NOTHING", null, 10, "email").map(User::getEmail))
+                .expectNext("user-3@email.com", "user-6@email.com")
+                .verifyComplete();
+    }
+
+    private static User user(final String name, final String email) {
+        return User.builder().name(name).email(email).password("secret").build();
+    }
+
+}
@@ -0,0 +1,414 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.entity.User;
+import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.service.exception.DuplicateUserException;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoUserRepositoryTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Spy
+    private MeterRegistry registry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private MongoUserRepository repository;
+
+    @Test
+    void testInsertAllReturnsWriteErrors() {
+        final BulkWriteError error = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        final MongoBulkWriteException cause = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(error), null, new ServerAddress(), Set.of());
+        final ReactiveBulkOperations bulkOperations = mock(ReactiveBulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.error(new DuplicateKeyException(cause.getMessage(), cause)));
+
+        StepVerifier.create(repository.insertAll(List.of(User.builder().build(), User.builder().build())))
+                .expectNext(List.of(error))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testSaveTranslatesDuplicateKeyFromWriteError() {
+        final MongoWriteException cause = new MongoWriteException(new WriteError(11000, "E11000 duplicate key error",
+                new BsonDocument("keyPattern", new BsonDocument("email", new BsonInt32(1)))), new ServerAddress());
+        when(mongoTemplate.save(any(User.class))).thenReturn(Mono.error(new DuplicateKeyException(cause.getMessage(), cause)));
+
+        StepVerifier.create(repository.save(User.builder().build()))
+                .expectErrorSatisfies(ex -> {
+                    DuplicateUserException duplicate = assertInstanceOf(DuplicateUserException.class, ex);
+                    assertEquals(DuplicateUserException.EMAIL_KEY, duplicate.getKey());
+                    assertEquals("E-mail already registered", duplicate.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void testSaveTreatsDuplicateWithoutKeyPatternAsEmail() {
+        final MongoWriteException cause = new MongoWriteException(new WriteError(11000,
+                "E11000 duplicate key error collection: webflux-api.user index: email_ci dup key: { email: \"usuario@email.com\" }",
+                new BsonDocument()), new ServerAddress());
+        when(mongoTemplate.save(any(User.class))).thenReturn(Mono.error(new DuplicateKeyException(cause.getMessage(), cause)));
+
+        StepVerifier.create(repository.save(User.builder().build()))
+                .expectErrorSatisfies(ex -> {
+                    DuplicateUserException duplicate = assertInstanceOf(DuplicateUserException.class, ex);
+                    assertEquals(DuplicateUserException.EMAIL_KEY, duplicate.getKey());
+                    assertEquals("E-mail already registered", duplicate.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void testSaveReportsDuplicateIdAsGenericDuplicate() {
+        final MongoWriteException cause = new MongoWriteException(new WriteError(11000,
+                "E11000 duplicate key error collection: webflux-api.user index: _id_ dup key: { _id: ObjectId('65a0f0f0f0f0f0f0f0f0f0f0') }",
+                new BsonDocument()), new ServerAddress());
+        when(mongoTemplate.save(any(User.class))).thenReturn(Mono.error(new DuplicateKeyException(cause.getMessage(), cause)));
+
+        StepVerifier.create(repository.save(User.builder().build()))
+                .expectErrorSatisfies(ex -> {
+                    DuplicateUserException duplicate = assertInstanceOf(DuplicateUserException.class, ex);
+                    assertEquals(DuplicateUserException.ID_KEY, duplicate.getKey());
+                    assertEquals("Duplicate key exception", duplicate.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void testPatchTranslatesDuplicateKeyFromKeyPattern() {
+        final MongoCommandException cause = new MongoCommandException(new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(11000))
+                .append("errmsg", new BsonString("E11000 duplicate key error"))
+                .append("keyPattern", new BsonDocument("email", new BsonInt32(1))), new ServerAddress());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException(cause.getMessage(), cause)));
+
+        StepVerifier.create(repository.patch("123", new UserRequest(null, "usuario@email.com", null)))
+                .expectErrorSatisfies(ex -> assertEquals(DuplicateUserException.EMAIL_KEY, ((DuplicateUserException) ex).getKey()))
+                .verify();
+    }
+
+    @Test
+    void testInsertIfAbsentUpsertsOnEmail() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, new BsonObjectId(new ObjectId()))))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 0L, null)));
+        final User user = User.builder().name("usuario").email("usuario@email.com").password("hash").build();
+
+        StepVerifier.create(repository.insertIfAbsent(user).concatWith(repository.insertIfAbsent(user)))
+                .expectNext(true, false)
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).upsert(query.capture(), update.capture(), eq(User.class));
+        assertEquals(new Document("email", "usuario@email.com"), query.getValue().getQueryObject());
+        assertEquals(Document.parse(User.EMAIL_COLLATION), query.getValue().getCollation().orElseThrow().toDocument());
+        assertEquals(new Document("$setOnInsert", new Document("name", "usuario").append("password", "hash").append("version", 0L)),
+                update.getValue().getUpdateObject());
+    }
+
+    @Test
+    void testPatchSetsOnlyNonNullFieldsInOneRoundTrip() {
+        final User updated = User.builder().id("123").name("usuario").version(2L).build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(Mono.just(updated));
+
+        StepVerifier.create(repository.patch("123", new UserRequest("usuario", null, null)))
+                .expectNext(updated)
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(User.class));
+        assertEquals(new Document("id", "123"), query.getValue().getQueryObject());
+        assertEquals(new Document("$set", new Document("name", "usuario")).append("$inc", new Document("version", 1)),
+                update.getValue().getUpdateObject());
+        assertTrue(options.getValue().isReturnNew());
+        verify(mongoTemplate, never()).save(any(User.class));
+    }
+
+    @Test
+    void testPatchWithExpectedVersion() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.patch("123", new UserRequest(null, "usuario@email.com", null), 3L))
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(User.class));
+        assertEquals(new Document("id", "123").append("version", 3L), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void testFindByIdProjectsAwayPassword() {
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.findById("123"))
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(captor.capture(), eq(User.class));
+        assertEquals(new Document("id", "123"), captor.getValue().getQueryObject());
+        assertEquals(new Document("name", 1).append("email", 1).append("version", 1), captor.getValue().getFieldsObject());
+    }
+
+    @Test
+    void testFindByEmailUsesCaseInsensitiveCollation() {
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.findByEmail("Usuario@Email.com"))
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(captor.capture(), eq(User.class));
+        Query query = captor.getValue();
+        assertEquals(new Document("email", "Usuario@Email.com"), query.getQueryObject());
+        assertEquals(Document.parse(User.EMAIL_COLLATION), query.getCollation().orElseThrow().toDocument());
+    }
+
+    @Test
+    void testEmailIsUniqueUnderCaseInsensitiveCollation() {
+        final List<Document> emailIndexes = StreamSupport.stream(new MongoPersistentEntityIndexResolver(new MongoMappingContext())
+                        .resolveIndexFor(User.class).spliterator(), false)
+                .filter(index -> index.getIndexKeys().containsKey("email") && !"text".equals(index.getIndexKeys().get("email")))
+                .map(IndexDefinition::getIndexOptions)
+                .toList();
+
+        assertEquals(1, emailIndexes.size());
+        assertEquals(User.EMAIL_CI_INDEX, emailIndexes.get(0).get("name"));
+        assertEquals(true, emailIndexes.get(0).get("unique"));
+        assertEquals(Document.parse(User.EMAIL_COLLATION), emailIndexes.get(0).get("collation"));
+    }
+
+    @Test
+    void testInsertAllInitializesVersion() {
+        final ReactiveBulkOperations bulkOperations = mock(ReactiveBulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+        final List<User> users = List.of(User.builder().build(), User.builder().version(3L).build());
+
+        StepVerifier.create(repository.insertAll(users))
+                .expectNext(List.of())
+                .expectComplete()
+                .verify();
+
+        assertEquals(0L, users.get(0).getVersion());
+        assertEquals(3L, users.get(1).getVersion());
+    }
+
+    @Test
+    void testFindAllByIdIssuesSingleInQuery() {
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(repository.findAllById(List.of("1", "2")))
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(1)).find(captor.capture(), eq(User.class));
+        assertEquals(new Document("id", new Document("$in", List.of("1", "2"))), captor.getValue().getQueryObject());
+        assertEquals(new Document("name", 1).append("email", 1).append("version", 1), captor.getValue().getFieldsObject());
+    }
+
+    @Test
+    void testSearchByNamePrefixUsesAnchoredRegexAndKeyset() {
+        final String after = new ObjectId().toHexString();
+
+        Query query = MongoUserRepository.prefixQuery("a.b", "a.bc", after, 20, "email");
+
+        Document criteria = query.getQueryObject();
+        assertEquals("^a\\.b", ((Pattern) criteria.get("name")).pattern());
+        assertEquals(List.of(new Document("name", new Document("$gt", "a.bc")),
+                        new Document("name", "a.bc").append("id", new Document("$gt", new ObjectId(after)))),
+                criteria.get("$or"));
+        assertEquals(new Document("name", 1).append("id", 1), query.getSortObject());
+        assertEquals(User.NAME_INDEX, query.getHint());
+        assertEquals(20, query.getLimit());
+        assertEquals(new Document("id", 1).append("name", 1).append("email", 1), query.getFieldsObject());
+    }
+
+    @Test
+    void testSearchTextUsesTextIndex() {
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(repository.searchText("usuario", null, 10))
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(User.class));
+        assertEquals(new Document("$search", "usuario"), captor.getValue().getQueryObject().get("$text"));
+        assertFalse(captor.getValue().getQueryObject().containsKey("id"));
+        assertEquals(new Document("id", 1), captor.getValue().getSortObject());
+        assertEquals(10, captor.getValue().getLimit());
+    }
+
+    @Test
+    void testCountWithNamePrefixUsesNameIndex() {
+        when(mongoTemplate.count(any(Query.class), eq(User.class))).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(repository.count("usu"))
+                .expectNext(3L)
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).count(captor.capture(), eq(User.class));
+        assertEquals("^usu", ((Pattern) captor.getValue().getQueryObject().get("name")).pattern());
+        assertEquals(User.NAME_INDEX, captor.getValue().getHint());
+        verify(mongoTemplate, never()).estimatedCount(User.class);
+    }
+
+    @Test
+    void testFindAllProjectsRequestedFields() {
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(repository.findAll())
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(User.class));
+        assertEquals(new Document("id", 1), captor.getValue().getFieldsObject());
+    }
+
+    @Test
+    void testFindPageBuildsBoundedKeysetQuery() {
+        final ObjectId after = new ObjectId();
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(repository.findPage(after.toHexString(), 25, "name", "email"))
+                .expectComplete()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(User.class));
+        Query query = captor.getValue();
+        assertEquals(25, query.getLimit());
+        assertEquals(25, query.getMeta().getCursorBatchSize());
+        assertEquals(new Document("id", 1), query.getSortObject());
+        assertEquals(new Document("id", new Document("$gt", after)), query.getQueryObject());
+        assertEquals(new Document("id", 1).append("name", 1).append("email", 1), query.getFieldsObject());
+    }
+
+    @Test
+    void testFindAllBoundsDemandToCursorBatch() {
+        final List<Long> requests = new CopyOnWriteArrayList<>();
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(
+                Flux.range(0, 10_000)
+                        .map(i -> User.builder().build())
+                        .doOnRequest(requests::add));
+
+        StepVerifier.create(repository.findAll("name"), 1)
+                .expectNextCount(1)
+                .thenRequest(UserRepository.STREAM_BATCH_SIZE * 2L)
+                .expectNextCount(UserRepository.STREAM_BATCH_SIZE * 2L)
+                .thenCancel()
+                .verify();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(User.class));
+        assertEquals(UserRepository.STREAM_BATCH_SIZE, captor.getValue().getMeta().getCursorBatchSize());
+        assertTrue(requests.stream().allMatch(n -> n <= UserRepository.STREAM_BATCH_SIZE));
+    }
+
+    @Test
+    void testFindPageWalksCollectionWithBoundedKeysetQueries() {
+        final int limit = 50;
+        final List<List<User>> pages = List.of(users(limit), users(limit), users(limit / 2));
+        when(mongoTemplate.find(any(Query.class), eq(User.class)))
+                .thenReturn(Flux.fromIterable(pages.get(0)))
+                .thenReturn(Flux.fromIterable(pages.get(1)))
+                .thenReturn(Flux.fromIterable(pages.get(2)));
+
+        String after = null;
+        List<User> page;
+        do {
+            page = repository.findPage(after, limit, "name").collectList().block();
+            after = page.get(page.size() - 1).getId();
+        } while (page.size() == limit);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(pages.size())).find(captor.capture(), eq(User.class));
+        for (int i = 0; i < pages.size(); i++) {
+            Query query = captor.getAllValues().get(i);
+            assertEquals(limit, query.getLimit());
+            assertEquals(limit, query.getMeta().getCursorBatchSize());
+            assertEquals(new Document("id", 1), query.getSortObject());
+            assertEquals(new Document("id", 1).append("name", 1), query.getFieldsObject());
+            if (i == 0) {
+                assertTrue(query.getQueryObject().isEmpty());
+            } else {
+                assertEquals(new Document("id", new Document("$gt", new ObjectId(pages.get(i - 1).get(limit - 1).getId()))), query.getQueryObject());
+            }
+        }
+    }
+
+    private static List<User> users(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> User.builder().id(new ObjectId().toHexString()).build())
+                .toList();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.config.UserWriteBehindProperties;
+import com.github.erf88.entity.User;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserInsertBatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Mock
+    private UserRepository repository;
+
+    private UserInsertBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.destroy();
+    }
+
+    @Test
+    void testConcurrentSavesShareOneBulkInsertAndFailuresReachTheirCaller() {
+        batcher = new UserInsertBatcher(repository, new UserWriteBehindProperties(true, 10, Duration.ofMillis(50), 100, 1), registry);
+        final BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key error index: email dup key", new BsonDocument(), 1);
+        when(repository.insertAll(anyList())).thenReturn(Mono.just(List.of(duplicate)));
+
+        StepVerifier.create(Mono.zip(
+                        batcher.save(User.builder().email("a@email.com").build()),
+                        batcher.save(User.builder().email("b@email.com").build()).map(User::getEmail).onErrorResume(DuplicateKeyException.class, ex -> Mono.just("duplicate")),
+                        batcher.save(User.builder().email("c@email.com").build())))
+                .assertNext(result -> {
+                    assertNotNull(result.getT1().getId());
+                    assertEquals("duplicate", result.getT2());
+                    assertEquals("c@email.com", result.getT3().getEmail());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(repository, times(1)).insertAll(argThat(users -> users.size() == 3));
+        verify(repository, never()).save(any(User.class));
+        assertEquals(3.0, registry.get(UserInsertBatcher.METRIC_PREFIX + ".batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void testFullBufferRejectsInsteadOfGrowing() {
+        batcher = new UserInsertBatcher(repository, new UserWriteBehindProperties(true, 10, Duration.ofSeconds(30), 2, 1), registry);
+
+        batcher.save(User.builder().build()).subscribe();
+        batcher.save(User.builder().build()).subscribe();
+
+        StepVerifier.create(batcher.save(User.builder().build()))
+                .expectError(RejectedExecutionException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1.0, registry.get(UserInsertBatcher.METRIC_PREFIX + ".rejected").counter().count());
+        assertEquals(2.0, registry.get(UserInsertBatcher.METRIC_PREFIX + ".pending").gauge().value());
+    }
+
+    @Test
+    void testInsertErrorIsPropagatedToEveryCaller() {
+        batcher = new UserInsertBatcher(repository, new UserWriteBehindProperties(true, 10, Duration.ofMillis(10), 100, 1), registry);
+        when(repository.insertAll(anyList())).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(batcher.save(User.builder().build()))
+                .expectErrorMessage("boom")
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testDisabledBatcherDelegatesToSave() {
+        batcher = new UserInsertBatcher(repository, new UserWriteBehindProperties(false, 10, Duration.ofMillis(10), 100, 1), registry);
+        when(repository.save(any(User.class))).thenReturn(Mono.just(User.builder().id("1").build()));
+
+        StepVerifier.create(batcher.save(User.builder().build()))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+
+        assertFalse(batcher.isEnabled());
+        verify(repository, never()).insertAll(anyList());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.config.UserCoalescerProperties;
+import com.github.erf88.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Mock
+    private UserRepository repository;
+
+    private UserLookupCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        coalescer.destroy();
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneQuery() {
+        coalescer = new UserLookupCoalescer(repository, new UserCoalescerProperties(true, 10, Duration.ofMillis(50), 1), registry);
+        when(repository.findAllById(anyCollection())).thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<String>>getArgument(0))
+                .filter(id -> !id.equals("missing"))
+                .map(id -> User.builder().id(id).build()));
+
+        StepVerifier.create(Mono.zip(
+                        coalescer.findById("1"),
+                        coalescer.findById("2"),
+                        coalescer.findById("1"),
+                        coalescer.findById("missing").map(User::getId).defaultIfEmpty("empty")))
+                .assertNext(users -> {
+                    assertEquals("1", users.getT1().getId());
+                    assertEquals("2", users.getT2().getId());
+                    assertSame(users.getT1(), users.getT3());
+                    assertEquals("empty", users.getT4());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(repository, times(1)).findAllById(Set.of("1", "2", "missing"));
+        verify(repository, never()).findById(anyString());
+        assertEquals(4.0, registry.get(UserLookupCoalescer.BATCH_SIZE_METRIC).summary().totalAmount());
+    }
+
+    @Test
+    void testBatchIsFlushedWhenFull() {
+        coalescer = new UserLookupCoalescer(repository, new UserCoalescerProperties(true, 2, Duration.ofSeconds(30), 1), registry);
+        when(repository.findAllById(anyCollection())).thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<String>>getArgument(0))
+                .map(id -> User.builder().id(id).build()));
+
+        StepVerifier.create(Flux.merge(coalescer.findById("1"), coalescer.findById("2")).map(User::getId).collectList())
+                .assertNext(ids -> assertEquals(Set.of("1", "2"), Set.copyOf(ids)))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testQueryErrorIsPropagatedToEveryCaller() {
+        coalescer = new UserLookupCoalescer(repository, new UserCoalescerProperties(true, 10, Duration.ofMillis(10), 1), registry);
+        when(repository.findAllById(anyCollection())).thenReturn(Flux.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(coalescer.findById("1"))
+                .expectErrorMessage("boom")
+                .verify(Duration.ofSeconds(5));
+
+        when(repository.findAllById(anyCollection())).thenReturn(Flux.just(User.builder().id("2").build()));
+        StepVerifier.create(coalescer.findById("2"))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testDisabledCoalescerDelegatesToFindById() {
+        coalescer = new UserLookupCoalescer(repository, new UserCoalescerProperties(false, 10, Duration.ofMillis(10), 1), registry);
+        when(repository.findById("1")).thenReturn(Mono.just(User.builder().id("1").build()));
+
+        StepVerifier.create(coalescer.findById("1"))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+
+        assertFalse(coalescer.isEnabled());
+        verify(repository, never()).findAllById(any());
+        assertTrue(registry.find(UserLookupCoalescer.BATCH_SIZE_METRIC).meters().isEmpty());
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.github.erf88.repository;
+
+import com.github.erf88.entity.User;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("load")
+@EnabledIfEnvironmentVariable(named = "MONGODB_URI", matches = ".+")
+@TestPropertySource(properties = "spring.data.mongodb.database=webflux-api-search-plan")
+@SpringBootTest
+class UserSearchPlanTest {
+
+    private static final int USERS = Integer.getInteger("load.seed", 20_000);
+    private static final int LIMIT = 20;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(User.class)
+                .forEach(index -> mongoTemplate.indexOps(User.class).ensureIndex(index).block());
+        Flux.range(0, USERS)
+                .map(i -> User.builder().name("user " + i).email("user-%d@plan.test".formatted(i)).password("secret").build())
+                .buffer(1_000)
+                .concatMap(repository::insertAll)
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.dropCollection(User.class).block();
+    }
+
+    @Test
+    void namePrefixSearchSeeksNameIndex() {
+        final Document first = explain(MongoUserRepository.prefixQuery("user 12", null, null, LIMIT, "email"));
+        assertIndexed("prefix", first);
+
+        final List<User> page = repository.searchByNamePrefix("user 12", null, null, LIMIT).collectList().block();
+        final User last = page.get(page.size() - 1);
+        assertIndexed("prefix (next page)", explain(MongoUserRepository.prefixQuery("user 12", last.getName(), last.getId(), LIMIT, "email")));
+    }
+
+    @Test
+    void textSearchUsesTextIndex() {
+        assertIndexed("text", explain(MongoUserRepository.textQuery("user-12", null, LIMIT, "name")));
+    }
+
+    private Document explain(final Query query) {
+        final MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(User.class);
+        final QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .flatMap(collection -> {
+                    FindPublisher<Document> find = collection.find(mapper.getMappedObject(query.getQueryObject(), entity))
+                            .sort(mapper.getMappedSort(query.getSortObject(), entity))
+                            .projection(mapper.getMappedFields(query.getFieldsObject(), entity))
+                            .limit(query.getLimit());
+                    if (query.getHint() != null) {
+                        find = find.hintString(query.getHint());
+                    }
+                    return Mono.from(find.explain(Document.class, ExplainVerbosity.EXECUTION_STATS));
+                })
+                .block();
+    }
+
+    private static void assertIndexed(final String scenario, final Document explain) {
+        final Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        final List<String> stages = new ArrayList<>();
+        collectStages(winningPlan, stages);
+        final Document stats = explain.get("executionStats", Document.class);
+        System.out.printf("%-20s stages %s   returned %d   keys examined %d   docs examined %d%n", scenario, stages,
+                stats.getInteger("nReturned"), stats.getInteger("totalKeysExamined"), stats.getInteger("totalDocsExamined"));
+        assertFalse(stages.contains("COLLSCAN"), scenario + " query plan scans the collection: " + stages);
+        assertTrue(stages.contains("IXSCAN") || stages.contains("TEXT") || stages.contains("TEXT_MATCH"), scenario + " query plan uses no index: " + stages);
+    }
+
+    private static void collectStages(final Object node, final List<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.github.erf88.security;
+
+import com.github.erf88.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Test
+    void testHashRunsOnDedicatedScheduler() {
+        passwordHasher = new PasswordHasher(new PasswordHashingProperties(4, 2, 10), registry);
+        final String caller = Thread.currentThread().getName();
+
+        StepVerifier.create(passwordHasher.hash("usuario123")
+                        .map(hash -> Thread.currentThread().getName() + "|" + hash))
+                .assertNext(result -> {
+                    String[] parts = result.split("\\|");
+                    assertNotEquals(caller, parts[0]);
+                    assertTrue(parts[0].startsWith(PasswordHasher.EXECUTOR_NAME));
+                    assertTrue(new BCryptPasswordEncoder().matches("usuario123", parts[1]));
+                })
+                .expectComplete()
+                .verify();
+
+        assertEquals(1, registry.get("users.password.hash").timer().count());
+        assertNotNull(registry.find("executor.queued").tag("name", PasswordHasher.EXECUTOR_NAME).gauge());
+    }
+
+    @Test
+    void testNullPasswordIsNotHashed() {
+        passwordHasher = new PasswordHasher(new PasswordHashingProperties(4, 1, 1), registry);
+
+        StepVerifier.create(passwordHasher.hash(null))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testBurstDoesNotBlockCallerAndOverflowIsRejected() throws InterruptedException {
+        passwordHasher = new PasswordHasher(new PasswordHashingProperties(12, 1, 2), registry);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicInteger hashed = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+
+        final long start = System.nanoTime();
+        Flux.range(0, 8)
+                .flatMap(i -> passwordHasher.hash("usuario123")
+                        .doOnNext(hash -> hashed.incrementAndGet())
+                        .onErrorResume(RejectedExecutionException.class, ex -> {
+                            rejected.incrementAndGet();
+                            return Mono.empty();
+                        }))
+                .doFinally(signal -> done.countDown())
+                .subscribe();
+        final Duration callerTime = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertTrue(callerTime.toMillis() < 200, "caller blocked for " + callerTime);
+        assertEquals(3, hashed.get());
+        assertEquals(5, rejected.get());
+    }
+
+}
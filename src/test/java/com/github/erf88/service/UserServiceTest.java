@@ -1,22 +1,50 @@
 package com.github.erf88.service;
 
+import com.github.erf88.cache.UserCache;
+import com.github.erf88.cache.UserCountCache;
+import com.github.erf88.config.PasswordHashingProperties;
+import com.github.erf88.config.UserCacheProperties;
+import com.github.erf88.config.UserCountProperties;
 import com.github.erf88.entity.User;
 import com.github.erf88.mapper.UserMapper;
+import com.github.erf88.model.UserDocument;
 import com.github.erf88.model.request.UserRequest;
+import com.github.erf88.model.response.BatchItemResponse;
+import com.github.erf88.model.response.UserImportResponse;
+import com.github.erf88.repository.UserInsertBatcher;
+import com.github.erf88.repository.UserLookupCoalescer;
 import com.github.erf88.repository.UserRepository;
+import com.github.erf88.security.PasswordHasher;
+import com.github.erf88.service.exception.InvalidCursorException;
+import com.github.erf88.service.exception.InvalidSearchException;
 import com.github.erf88.service.exception.ObjectNotFoundException;
+import com.github.erf88.service.exception.PreconditionFailedException;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,15 +53,44 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
+    private static final BCryptPasswordEncoder ENCODER = new BCryptPasswordEncoder();
+
     @Mock
     private UserRepository repository;
 
+    @Mock
+    private UserLookupCoalescer coalescer;
+
+    @Mock
+    private UserInsertBatcher batcher;
+
     @Mock
     private UserMapper mapper;
 
+    @Spy
+    private UserCache cache = new UserCache(new UserCacheProperties(true, 100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+
+    @Spy
+    private UserCountCache countCache = new UserCountCache(new UserCountProperties(true, 100, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(new PasswordHashingProperties(4, 2, 100), new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private UserService userService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(coalescer.findById(anyString())).thenAnswer(invocation -> repository.findById(invocation.getArgument(0)));
+        lenient().when(batcher.save(any(User.class))).thenAnswer(invocation -> repository.save(invocation.getArgument(0)));
+    }
+
     @Test
     void testSave() {
         UserRequest request = new UserRequest("usuario", "usuario@email.com", "usuario123");
@@ -49,7 +106,129 @@ class UserServiceTest {
                 .expectComplete()
                 .verify();
 
-        verify(repository, times(1)).save(any(User.class));
+        verify(repository, times(1)).save(argThat(user -> ENCODER.matches("usuario123", user.getPassword())));
+    }
+
+    @Test
+    void testSaveIfAbsent() {
+        when(mapper.toEntity(any(UserRequest.class))).thenReturn(User.builder().email("usuario@email.com").build());
+        when(repository.insertIfAbsent(any(User.class))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(userService.saveIfAbsent(new UserRequest("usuario", "usuario@email.com", "usuario123")))
+                .expectNext(false)
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).insertIfAbsent(argThat(user -> ENCODER.matches("usuario123", user.getPassword())));
+        verify(batcher, never()).save(any(User.class));
+    }
+
+    @Test
+    void testSaveAll() {
+        UserRequest valid = new UserRequest("usuario", "usuario@email.com", "usuario123");
+        UserRequest duplicate = new UserRequest("usuario", "duplicado@email.com", "usuario123");
+        UserRequest invalid = new UserRequest("u", "usuario@email.com", "usuario123");
+
+        when(mapper.toEntity(any(UserRequest.class))).thenAnswer(invocation -> User.builder().build());
+        when(repository.insertAll(anyList())).thenReturn(Mono.just(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key error",
+                        new BsonDocument("keyPattern", new BsonDocument("email", new BsonInt32(1))), 1))));
+
+        Flux<BatchItemResponse> result = userService.saveAll(Flux.just(valid, invalid, duplicate));
+
+        StepVerifier.create(result)
+                .expectNextMatches(item -> item.index() == 0 && item.status() == 201 && item.id() != null)
+                .expectNextMatches(item -> item.index() == 1 && item.status() == 400
+                        && item.message().equals("name: must be between 3 and 50 characters"))
+                .expectNextMatches(item -> item.index() == 2 && item.status() == 409
+                        && item.message().equals("E-mail already registered") && item.id() == null)
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).insertAll(argThat(users -> users.size() == 2
+                && users.stream().allMatch(user -> ENCODER.matches("usuario123", user.getPassword()))));
+    }
+
+    @Test
+    void testSaveAllChunksRequests() {
+        UserRequest request = new UserRequest("usuario", "usuario@email.com", "usuario123");
+        when(mapper.toEntity(any(UserRequest.class))).thenAnswer(invocation -> User.builder().build());
+        when(repository.insertAll(anyList())).thenReturn(Mono.just(List.of()));
+
+        StepVerifier.create(userService.saveAll(Flux.range(0, UserService.BATCH_CHUNK_SIZE + 1).map(i -> request)))
+                .expectNextCount(UserService.BATCH_CHUNK_SIZE + 1)
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    void testExportIncludesPasswordHashes() {
+        when(repository.findAll("name", "email", "password", "version")).thenReturn(Flux.just(User.builder().id("1").password("hash").build()));
+
+        StepVerifier.create(userService.export())
+                .expectNextMatches(user -> user.getId().equals("1") && user.getPassword().equals("hash"))
+                .expectComplete()
+                .verify();
+    }
+
+    @Test
+    void testImportAllRestoresDocumentsAndReportsFailures() {
+        final String hash = ENCODER.encode("usuario123");
+        final String id = new ObjectId().toHexString();
+        UserDocument archived = new UserDocument(id, "usuario", "usuario@email.com", hash, 3L);
+        UserDocument invalid = new UserDocument(null, "u", "invalid", hash, 0L);
+        UserDocument duplicate = new UserDocument(null, "usuario", "duplicado@email.com", hash, 0L);
+
+        when(mapper.toEntity(any(UserDocument.class))).thenAnswer(invocation -> {
+            final UserDocument document = invocation.getArgument(0);
+            return User.builder().id(document.id()).name(document.name()).email(document.email())
+                    .password(document.password()).version(document.version()).build();
+        });
+        when(repository.insertAll(anyList())).thenReturn(Mono.just(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1))));
+
+        StepVerifier.create(userService.importAll(Flux.just(archived, invalid, duplicate)))
+                .expectNextMatches(result -> result.imported() == 1 && result.failed() == 2
+                        && result.errors().size() == 2
+                        && result.errors().get(0).index() == 1 && result.errors().get(0).status() == 400
+                        && result.errors().get(0).message().equals("email: invalid email; name: must be between 3 and 50 characters")
+                        && result.errors().get(1).index() == 2 && result.errors().get(1).status() == 409)
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).insertAll(argThat(users -> users.size() == 2
+                && users.get(0).getId().equals(id) && users.get(0).getVersion() == 3L
+                && users.get(1).getId() != null && users.get(1).getVersion() == 0L
+                && users.stream().allMatch(user -> hash.equals(user.getPassword()))));
+        verify(passwordHasher, never()).hash(anyString());
+        verify(countCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testImportAllChunksDocuments() {
+        UserDocument document = new UserDocument(null, "usuario", "usuario@email.com", "hash", 0L);
+        when(mapper.toEntity(any(UserDocument.class))).thenAnswer(invocation -> User.builder().build());
+        when(repository.insertAll(anyList())).thenReturn(Mono.just(List.of()));
+
+        StepVerifier.create(userService.importAll(Flux.range(0, UserService.IMPORT_CHUNK_SIZE + 1).map(i -> document)))
+                .expectNext(new UserImportResponse(UserService.IMPORT_CHUNK_SIZE + 1, 0, List.of()))
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).insertAll(argThat(users -> users.size() == UserService.IMPORT_CHUNK_SIZE));
+        verify(repository, times(1)).insertAll(argThat(users -> users.size() == 1));
+    }
+
+    @Test
+    void testImportAllWithEmptyStream() {
+        StepVerifier.create(userService.importAll(Flux.empty()))
+                .expectNext(UserImportResponse.EMPTY)
+                .expectComplete()
+                .verify();
+
+        verify(repository, never()).insertAll(anyList());
     }
 
     @Test
@@ -66,18 +245,210 @@ class UserServiceTest {
         verify(repository, times(1)).findById(anyString());
     }
 
+    @Test
+    void testFindByIdUsesCache() {
+        when(repository.findById(anyString())).thenReturn(Mono.just(User.builder().id("123").build()));
+
+        StepVerifier.create(userService.findById("123").then(userService.findById("123")))
+                .expectNextMatches(user -> user.getId().equals("123"))
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).findById("123");
+    }
+
+    @Test
+    void testFindAllByIdUsesCacheForKnownIds() {
+        when(repository.findById("1")).thenReturn(Mono.just(User.builder().id("1").build()));
+        when(repository.findAllById(anyCollection())).thenReturn(Flux.just(User.builder().id("2").build()));
+        userService.findById("1").block();
+
+        StepVerifier.create(userService.findAllById(List.of("1", "2", "2", "3")))
+                .assertNext(users -> assertEquals(Set.of("1", "2"), users.keySet()))
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).findAllById(Set.of("2", "3"));
+    }
+
+    @Test
+    void testFindByEmailCachesEmailToIdMapping() {
+        User entity = User.builder().id("123").email("usuario@email.com").build();
+        when(repository.findByEmail(anyString())).thenReturn(Mono.just(entity));
+        when(repository.findById("123")).thenReturn(Mono.just(entity));
+
+        userService.findByEmail("usuario@email.com").block();
+        userService.findByEmail("USUARIO@email.com").block();
+        userService.findByEmail("usuario@email.com").block();
+
+        verify(repository, times(1)).findByEmail(anyString());
+        verify(repository, times(1)).findById("123");
+    }
+
+    @Test
+    void testFindByEmailIgnoresStaleMapping() {
+        when(repository.findByEmail("usuario@email.com"))
+                .thenReturn(Mono.just(User.builder().id("123").email("usuario@email.com").build()))
+                .thenReturn(Mono.just(User.builder().id("456").email("usuario@email.com").build()));
+        when(repository.findById("123")).thenReturn(Mono.just(User.builder().id("123").email("outro@email.com").build()));
+
+        userService.findByEmail("usuario@email.com").block();
+        cache.invalidate("123");
+
+        StepVerifier.create(userService.findByEmail("usuario@email.com"))
+                .expectNextMatches(user -> user.getId().equals("456"))
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(2)).findByEmail("usuario@email.com");
+    }
+
+    @Test
+    void testFindByEmailWithNotFound() {
+        when(repository.findByEmail(anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.findByEmail("usuario@email.com"))
+                .expectErrorMessage("Object not found. Email: usuario@email.com, Type: User")
+                .verify();
+    }
+
+    @Test
+    void testSearchByPrefixResumesFromCursor() {
+        final String after = new ObjectId().toHexString();
+        when(repository.searchByNamePrefix(anyString(), anyString(), anyString(), anyInt(), any(String[].class)))
+                .thenReturn(Flux.just(User.builder().build()));
+
+        StepVerifier.create(userService.search("usu", SearchMode.PREFIX, new SearchCursor(after, "usuário 1").encode(), 1_000, UserFields.SUMMARY))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).searchByNamePrefix("usu", "usuário 1", after, UserService.MAX_PAGE_SIZE, "name");
+    }
+
+    @Test
+    void testSearchTextWithoutCursor() {
+        when(repository.searchText(anyString(), isNull(), anyInt(), any(String[].class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(userService.search("usuario", SearchMode.TEXT, null, 10, UserFields.ALL))
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).searchText("usuario", null, 10, "name", "email");
+    }
+
+    @Test
+    void testSearchWithBlankQuery() {
+        StepVerifier.create(userService.search(" ", SearchMode.PREFIX, null, 10, UserFields.ALL))
+                .expectError(InvalidSearchException.class)
+                .verify();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testEstimatedCountIsCached() {
+        when(repository.estimatedCount()).thenReturn(Mono.just(42L));
+
+        StepVerifier.create(userService.count(CountMode.ESTIMATED, null))
+                .expectNext(42L)
+                .expectComplete()
+                .verify();
+        StepVerifier.create(userService.count(CountMode.ESTIMATED, " "))
+                .expectNext(42L)
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).estimatedCount();
+        verify(repository, never()).count(any());
+    }
+
+    @Test
+    void testExactCountIsCachedPerFilter() {
+        when(repository.count(isNull())).thenReturn(Mono.just(42L));
+        when(repository.count("usu")).thenReturn(Mono.just(7L));
+
+        assertEquals(42L, userService.count(CountMode.EXACT, null).block());
+        assertEquals(7L, userService.count(CountMode.EXACT, "usu").block());
+        assertEquals(7L, userService.count(CountMode.EXACT, "usu").block());
+
+        verify(repository, times(1)).count(isNull());
+        verify(repository, times(1)).count("usu");
+    }
+
+    @Test
+    void testEstimatedCountWithFilter() {
+        StepVerifier.create(userService.count(CountMode.ESTIMATED, "usu"))
+                .expectError(InvalidSearchException.class)
+                .verify();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testUpdateAndDeleteInvalidateCache() {
+        User entity = User.builder().id("123").build();
+        when(repository.findById(anyString())).thenReturn(Mono.just(entity));
+        when(repository.patch(anyString(), any(UserRequest.class), isNull())).thenReturn(Mono.just(entity));
+        when(repository.findAndRemove(anyString())).thenReturn(Mono.just(entity));
+
+        userService.findById("123").block();
+        userService.update("123", new UserRequest("usuario", null, null)).block();
+        userService.findById("123").block();
+        userService.delete("123").block();
+        userService.findById("123").block();
+
+        verify(cache, times(2)).invalidate("123");
+        verify(repository, times(3)).findById("123");
+    }
+
     @Test
     void testFindAll() {
-        when(repository.findAll()).thenReturn(Flux.just(User.builder().build()));
+        when(repository.findAll("name", "email")).thenReturn(Flux.just(User.builder().build()));
 
-        Flux<User> result = userService.findAll();
+        Flux<User> result = userService.findAll(UserFields.ALL);
 
         StepVerifier.create(result)
                 .expectNextMatches(user -> user.getClass() == User.class)
                 .expectComplete()
                 .verify();
 
-        verify(repository, times(1)).findAll();
+        verify(repository, times(1)).findAll("name", "email");
+    }
+
+    @Test
+    void testFindPage() {
+        final String after = new ObjectId().toHexString();
+        when(repository.findPage(anyString(), anyInt(), eq("name"))).thenReturn(Flux.just(User.builder().build()));
+
+        Flux<User> result = userService.findPage(PageCursor.encode(after), 1_000, UserFields.SUMMARY);
+
+        StepVerifier.create(result)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).findPage(after, UserService.MAX_PAGE_SIZE, "name");
+    }
+
+    @Test
+    void testFindPageWithoutCursor() {
+        when(repository.findPage(isNull(), anyInt(), any(String[].class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(userService.findPage(null, 0, UserFields.ALL))
+                .expectComplete()
+                .verify();
+
+        verify(repository, times(1)).findPage(null, 1, "name", "email");
+    }
+
+    @Test
+    void testFindPageWithInvalidCursor() {
+        StepVerifier.create(userService.findPage("not-a-cursor", 10, UserFields.ALL))
+                .expectError(InvalidCursorException.class)
+                .verify();
+
+        verify(repository, never()).findPage(any(), anyInt(), any(String[].class));
     }
 
     @Test
@@ -85,9 +456,7 @@ class UserServiceTest {
         UserRequest request = new UserRequest("usuario", "usuario@email.com", "usuario123");
         User entity = User.builder().build();
 
-        when(mapper.toEntity(any(UserRequest.class), any(User.class))).thenReturn(entity);
-        when(repository.findById(anyString())).thenReturn(Mono.just(entity));
-        when(repository.save(any(User.class))).thenReturn(Mono.just(entity));
+        when(repository.patch(anyString(), any(UserRequest.class), isNull())).thenReturn(Mono.just(entity));
 
         Mono<User> result = userService.update("123", request);
 
@@ -96,7 +465,53 @@ class UserServiceTest {
                 .expectComplete()
                 .verify();
 
-        verify(repository, times(1)).save(any(User.class));
+        verify(repository, times(1)).patch(eq("123"), argThat(changes -> changes.name().equals("usuario")
+                && ENCODER.matches("usuario123", changes.password())), isNull());
+        verify(repository, never()).findById(anyString());
+        verify(repository, never()).save(any(User.class));
+    }
+
+    @Test
+    void testUpdateWithNotFound() {
+        UserRequest request = new UserRequest("usuario", null, null);
+        when(repository.patch(anyString(), any(UserRequest.class), isNull())).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.update("123", request))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void testUpdateWithExpectedVersion() {
+        when(repository.patch(anyString(), any(UserRequest.class), eq(3L))).thenReturn(Mono.just(User.builder().version(4L).build()));
+
+        StepVerifier.create(userService.update("123", new UserRequest("usuario", null, null), 3L))
+                .expectNextMatches(user -> user.getVersion() == 4L)
+                .expectComplete()
+                .verify();
+
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void testUpdateWithStaleVersion() {
+        when(repository.patch(anyString(), any(UserRequest.class), eq(3L))).thenReturn(Mono.empty());
+        when(repository.findById("123")).thenReturn(Mono.just(User.builder().id("123").version(5L).build()));
+
+        StepVerifier.create(userService.update("123", new UserRequest("usuario", null, null), 3L))
+                .expectErrorMatches(ex -> ex instanceof PreconditionFailedException
+                        && ex.getMessage().equals("Version mismatch. Id: 123, expected: 3, current: 5"))
+                .verify();
+    }
+
+    @Test
+    void testUpdateWithVersionAndNotFound() {
+        when(repository.patch(anyString(), any(UserRequest.class), eq(3L))).thenReturn(Mono.empty());
+        when(repository.findById("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.update("123", new UserRequest("usuario", null, null), 3L))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
     }
 
     @Test
@@ -121,6 +536,10 @@ class UserServiceTest {
 
         ObjectNotFoundException result = assertThrows(ObjectNotFoundException.class, () -> userService.findById(id).block());
         assertEquals("Object not found. Id: %s, Type: %s".formatted(id, User.class.getSimpleName()), result.getMessage());
+        assertEquals(0, result.getStackTrace().length);
+        assertEquals(1, registry.get(UserService.METRIC_NAME)
+                .tags("method", "findById", "outcome", "ERROR", "exception", "ObjectNotFoundException")
+                .timer().count());
     }
 
 }
\ No newline at end of file
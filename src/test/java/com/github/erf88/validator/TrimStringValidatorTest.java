@@ -0,0 +1,64 @@
+package com.github.erf88.validator;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.annotation.Annotation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrimStringValidatorTest {
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "usuario|true|true",
+            "u|true|true",
+            "''|true|true",
+            "' usuario'|false|false",
+            "'usuario '|false|false",
+            "'usu ario'|true|true",
+            "'\tusuario'|false|false",
+            "'usuario\u00A0'|true|false",
+            "'\u2003usuario'|true|false",
+    }, delimiter = '|')
+    void testIsValid(String value, boolean ascii, boolean unicode) {
+        assertEquals(ascii, validator(false).isValid(value, null));
+        assertEquals(unicode, validator(true).isValid(value, null));
+        if (!value.isEmpty()) {
+            assertEquals(value.trim().length() == value.length(), validator(false).isValid(value, null));
+        }
+    }
+
+    private static TrimStringValidator validator(boolean unicode) {
+        TrimStringValidator validator = new TrimStringValidator();
+        validator.initialize(new TrimString() {
+            @Override
+            public String message() {
+                return "";
+            }
+
+            @Override
+            public boolean unicode() {
+                return unicode;
+            }
+
+            @Override
+            public Class<?>[] groups() {
+                return new Class<?>[0];
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Class<? extends jakarta.validation.Payload>[] payload() {
+                return new Class[0];
+            }
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return TrimString.class;
+            }
+        });
+        return validator;
+    }
+
+}